@@ -0,0 +1,80 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec.benchmarks;
+
+import org.jparsec.IntOperatorTable;
+import org.jparsec.IntParser;
+import org.jparsec.OperatorTable;
+import org.jparsec.Parser;
+import org.jparsec.Parsers;
+import org.jparsec.Scanners;
+import org.jparsec.Terminals;
+
+/**
+ * A token level arithmetic expression grammar built with {@link OperatorTable}.
+ *
+ * @author Ben Yu
+ */
+final class Arithmetic {
+  private static final Terminals OPERATORS = Terminals.operators("+", "-", "*", "/", "(", ")");
+
+  /** Returns the expression parser, with integer operands and labeled terms. */
+  static Parser<Integer> parser() {
+    Parser.Reference<Integer> ref = Parser.newReference();
+    Parser<Integer> number = Terminals.IntegerLiteral.PARSER.map(Integer::valueOf).label("number");
+    Parser<Integer> term = ref.lazy().between(OPERATORS.token("("), OPERATORS.token(")"))
+        .label("parenthesized")
+        .or(number);
+    Parser<Integer> expression = new OperatorTable<Integer>()
+        .prefix(OPERATORS.token("-").retn(n -> -n), 100)
+        .infixl(OPERATORS.token("+").retn((a, b) -> a + b), 10)
+        .infixl(OPERATORS.token("-").retn((a, b) -> a - b), 10)
+        .infixl(OPERATORS.token("*").retn((a, b) -> a * b), 20)
+        .infixl(OPERATORS.token("/").retn((a, b) -> a / b), 20)
+        .build(term)
+        .label("expression");
+    ref.set(expression);
+    return expression.from(
+        Parsers.or(OPERATORS.tokenizer(), Terminals.IntegerLiteral.TOKENIZER), Scanners.WHITESPACES.optional());
+  }
+
+  /** Returns the expression parser built with {@link IntOperatorTable}, which doesn't box the operands. */
+  static IntParser intParser() {
+    Parser.Reference<Integer> ref = Parser.newReference();
+    IntParser number = Terminals.IntegerLiteral.PARSER.mapToInt(Integer::parseInt);
+    IntParser term = ref.lazy().between(OPERATORS.token("("), OPERATORS.token(")"))
+        .mapToInt(Integer::intValue)
+        .or(number);
+    IntParser expression = new IntOperatorTable()
+        .prefix(OPERATORS.token("-").retn(n -> -n), 100)
+        .infixl(OPERATORS.token("+").retn((a, b) -> a + b), 10)
+        .infixl(OPERATORS.token("-").retn((a, b) -> a - b), 10)
+        .infixl(OPERATORS.token("*").retn((a, b) -> a * b), 20)
+        .infixl(OPERATORS.token("/").retn((a, b) -> a / b), 20)
+        .build(term);
+    ref.set(expression);
+    return expression.from(
+        Parsers.or(OPERATORS.tokenizer(), Terminals.IntegerLiteral.TOKENIZER), Scanners.WHITESPACES.optional())
+        .mapToInt(Integer::intValue);
+  }
+
+  /** Generates an expression of about {@code size} characters. */
+  static String expression(int size) {
+    return Corpus.generate("", i -> "(" + i + " * 3 - -" + (i % 7) + ") / 2", " + ", "", size);
+  }
+
+  private Arithmetic() {}
+}
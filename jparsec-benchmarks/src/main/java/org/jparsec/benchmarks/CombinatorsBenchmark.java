@@ -0,0 +1,102 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jparsec.Parser;
+import org.jparsec.Parsers;
+import org.jparsec.Scanners;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of {@link Parsers#or}, {@link Parsers#sequence} and {@link Parser#many} on character level.
+ *
+ * @author Ben Yu
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CombinatorsBenchmark {
+  private static final int SIZE = 64 * 1024;
+  private static final String[] WORDS = {
+    "alpha", "beta", "gamma", "delta", "epsilon", "zeta", "eta", "theta",
+    "iota", "kappa", "lambda", "mu", "nu", "xi", "omicron", "pi"
+  };
+
+  private static final Parser<?> OR = Parsers.or(strings(WORDS)).sepBy(Scanners.isChar(' '));
+  private static final Parser<?> SEQUENCE = Parsers.sequence(
+      Scanners.isChar('('), Scanners.INTEGER, Scanners.isChar(','), Scanners.INTEGER, Scanners.isChar(')'))
+      .many();
+  private static final Parser<?> MANY = Scanners.isChar('a').many();
+  private static final Parser<?> SKIP_MANY = Scanners.isChar('a').skipMany();
+  private static final Parser<?> BACKTRACKING = Parsers.or(
+      Parsers.sequence(Scanners.IDENTIFIER, Scanners.isChar('(')),
+      Parsers.sequence(Scanners.IDENTIFIER, Scanners.isChar('[')),
+      Parsers.sequence(Scanners.IDENTIFIER, Scanners.isChar(';'))).many();
+
+  private String alternatives;
+  private String sequences;
+  private String repetition;
+  private String backtracking;
+
+  @Setup public void generate() {
+    alternatives = Corpus.generate("", i -> WORDS[i % WORDS.length], " ", "", SIZE);
+    sequences = Corpus.generate("", i -> "(" + i + "," + (i * 7) + ")", "", "", SIZE);
+    repetition = Corpus.generate("", i -> "a", "", "", SIZE);
+    backtracking = Corpus.generate("", i -> "name" + i + ";", "", "", SIZE);
+  }
+
+  @Benchmark public Object or() {
+    return OR.parse(alternatives);
+  }
+
+  @Benchmark public Object sequence() {
+    return SEQUENCE.parse(sequences);
+  }
+
+  @Benchmark public Object many() {
+    return MANY.parse(repetition);
+  }
+
+  @Benchmark public Object skipMany() {
+    return SKIP_MANY.parse(repetition);
+  }
+
+  @Benchmark public Object backtracking() {
+    return BACKTRACKING.parse(backtracking);
+  }
+
+  private static Parser<?>[] strings(String... strings) {
+    Parser<?>[] parsers = new Parser<?>[strings.length];
+    for (int i = 0; i < strings.length; i++) {
+      parsers[i] = Scanners.string(strings[i]);
+    }
+    return parsers;
+  }
+}
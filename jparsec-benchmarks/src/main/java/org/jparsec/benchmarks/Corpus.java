@@ -0,0 +1,51 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec.benchmarks;
+
+import java.util.function.IntFunction;
+
+/**
+ * Generates benchmark input of a requested size by repeating numbered fragments, so that every run parses the same
+ * text.
+ *
+ * @author Ben Yu
+ */
+public final class Corpus {
+
+  /**
+   * Returns {@code prefix}, followed by {@code fragment(0)}, {@code fragment(1)}, ... joined by {@code separator}
+   * until at least {@code size} characters are generated, and then {@code suffix}.
+   */
+  public static String generate(
+      String prefix, IntFunction<String> fragment, String separator, String suffix, int size) {
+    StringBuilder builder = new StringBuilder(size + 256);
+    builder.append(prefix);
+    for (int i = 0; builder.length() < size; i++) {
+      if (i > 0) builder.append(separator);
+      builder.append(fragment.apply(i));
+    }
+    return builder.append(suffix).toString();
+  }
+
+  /** Parses a size such as {@code "1KB"}, {@code "1MB"} or {@code "100MB"} into number of characters. */
+  public static int size(String size) {
+    if (size.endsWith("MB")) return Integer.parseInt(size.substring(0, size.length() - 2)) << 20;
+    if (size.endsWith("KB")) return Integer.parseInt(size.substring(0, size.length() - 2)) << 10;
+    return Integer.parseInt(size);
+  }
+
+  private Corpus() {}
+}
@@ -0,0 +1,62 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jparsec.Parser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link Parser.Mode#PRODUCTION} with {@link Parser.Mode#DEBUG}, which traces labeled parsers, and
+ * {@link Parser.Mode#OPTIMISTIC}, which defers the errors.
+ *
+ * @author Ben Yu
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ModeBenchmark {
+  private static final Parser<Integer> PARSER = Arithmetic.parser();
+
+  @Param({"PRODUCTION", "DEBUG", "OPTIMISTIC"})
+  public String mode;
+
+  private Parser.Mode parserMode;
+  private String expression;
+
+  @Setup public void generate() {
+    parserMode = Parser.Mode.valueOf(mode);
+    expression = Arithmetic.expression(64 * 1024);
+  }
+
+  @Benchmark public int parse() {
+    return PARSER.parse(expression, parserMode);
+  }
+}
@@ -0,0 +1,67 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jparsec.IntOperatorTable;
+import org.jparsec.IntParser;
+import org.jparsec.OperatorTable;
+import org.jparsec.Parser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of expression parsing with {@link OperatorTable} and {@link IntOperatorTable}.
+ *
+ * @author Ben Yu
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OperatorTableBenchmark {
+  private static final Parser<Integer> PARSER = Arithmetic.parser();
+  private static final IntParser INT_PARSER = Arithmetic.intParser();
+
+  @Param({"1KB", "64KB"})
+  public String size;
+
+  private String expression;
+
+  @Setup public void generate() {
+    expression = Arithmetic.expression(Corpus.size(size));
+  }
+
+  @Benchmark public int parse() {
+    return PARSER.parse(expression);
+  }
+
+  @Benchmark public int parseInt() {
+    return INT_PARSER.parse(expression);
+  }
+}
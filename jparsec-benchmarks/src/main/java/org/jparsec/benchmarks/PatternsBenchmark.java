@@ -0,0 +1,90 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jparsec.pattern.CharPredicates;
+import org.jparsec.pattern.Pattern;
+import org.jparsec.pattern.Patterns;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of {@link Pattern} matching, without the parser machinery.
+ *
+ * @author Ben Yu
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PatternsBenchmark {
+  private static final int SIZE = 64 * 1024;
+
+  private static final Pattern WORDS = Patterns.WORD.next(Patterns.many1(CharPredicates.IS_WHITESPACE)).many();
+  private static final Pattern REGEX = Patterns.regex("[a-zA-Z_][a-zA-Z0-9_]*\\s+").many();
+  private static final Pattern KEYWORDS = Patterns.or(
+      Patterns.string("select"), Patterns.string("from"), Patterns.string("where"), Patterns.string("group"),
+      Patterns.string("by"), Patterns.string("order"), Patterns.string("having"), Patterns.string("union"))
+      .next(Patterns.isChar(' ')).many();
+  private static final Pattern NOT_STRING = Patterns.notString("*/").many();
+  private static final Pattern SCIENTIFIC =
+      Patterns.SCIENTIFIC_NOTATION.next(Patterns.isChar(' ')).many();
+
+  private String words;
+  private String keywords;
+  private String comment;
+  private String numbers;
+
+  @Setup public void generate() {
+    words = Corpus.generate("", i -> "word" + i, " ", " ", SIZE);
+    String[] all = {"select", "from", "where", "group", "by", "order", "having", "union"};
+    keywords = Corpus.generate("", i -> all[i % all.length], " ", " ", SIZE);
+    comment = Corpus.generate("", i -> "comment * / " + i, " ", "", SIZE);
+    numbers = Corpus.generate("", i -> i + ".5e-" + (i % 10), " ", " ", SIZE);
+  }
+
+  @Benchmark public int words() {
+    return WORDS.match(words, 0, words.length());
+  }
+
+  @Benchmark public int regex() {
+    return REGEX.match(words, 0, words.length());
+  }
+
+  @Benchmark public int stringAlternatives() {
+    return KEYWORDS.match(keywords, 0, keywords.length());
+  }
+
+  @Benchmark public int notString() {
+    return NOT_STRING.match(comment, 0, comment.length());
+  }
+
+  @Benchmark public int scientificNotation() {
+    return SCIENTIFIC.match(numbers, 0, numbers.length());
+  }
+}
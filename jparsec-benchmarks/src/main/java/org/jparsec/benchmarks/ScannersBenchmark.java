@@ -0,0 +1,86 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jparsec.Parser;
+import org.jparsec.Scanners;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the predefined {@link Scanners}, each scanning 64K characters.
+ *
+ * @author Ben Yu
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScannersBenchmark {
+  private static final int SIZE = 64 * 1024;
+
+  private static final Parser<?> IDENTIFIERS = Scanners.IDENTIFIER.sepBy(Scanners.WHITESPACES);
+  private static final Parser<?> INTEGERS = Scanners.INTEGER.sepBy(Scanners.WHITESPACES);
+  private static final Parser<?> DECIMALS = Scanners.DECIMAL.sepBy(Scanners.WHITESPACES);
+  private static final Parser<?> STRINGS = Scanners.DOUBLE_QUOTE_STRING.sepBy(Scanners.WHITESPACES);
+  private static final Parser<?> DELIMITERS = Scanners.JAVA_DELIMITER;
+
+  private String identifiers;
+  private String integers;
+  private String decimals;
+  private String strings;
+  private String comments;
+
+  @Setup public void generate() {
+    identifiers = Corpus.generate("", i -> "identifier_" + i, " ", "", SIZE);
+    integers = Corpus.generate("", Integer::toString, " ", "", SIZE);
+    decimals = Corpus.generate("", i -> i + "." + i, " ", "", SIZE);
+    strings = Corpus.generate("", i -> "\"string \\\"" + i + "\\\"\"", " ", "", SIZE);
+    comments = Corpus.generate("", i -> "/* block " + i + " */ // line\n", "  \t", "", SIZE);
+  }
+
+  @Benchmark public Object identifiers() {
+    return IDENTIFIERS.parse(identifiers);
+  }
+
+  @Benchmark public Object integers() {
+    return INTEGERS.parse(integers);
+  }
+
+  @Benchmark public Object decimals() {
+    return DECIMALS.parse(decimals);
+  }
+
+  @Benchmark public Object doubleQuoteStrings() {
+    return STRINGS.parse(strings);
+  }
+
+  @Benchmark public Object javaDelimiters() {
+    return DELIMITERS.parse(comments);
+  }
+}
@@ -0,0 +1,81 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jparsec.Parser;
+import org.jparsec.Parsers;
+import org.jparsec.Scanners;
+import org.jparsec.Terminals;
+import org.jparsec.Token;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of lexing with {@link Terminals}, and of token level parsing of the lexed tokens.
+ *
+ * @author Ben Yu
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TerminalsBenchmark {
+  private static final int SIZE = 64 * 1024;
+
+  private static final Terminals TERMS = Terminals
+      .operators("+", "-", "*", "/", "=", "==", "!=", "<", "<=", ">", ">=", "(", ")", "{", "}", ";", ",")
+      .words(Scanners.IDENTIFIER)
+      .keywords("if", "else", "while", "for", "return", "int", "void")
+      .build();
+  private static final Parser<?> TOKENIZER = Parsers.or(
+      Terminals.IntegerLiteral.TOKENIZER, Terminals.StringLiteral.DOUBLE_QUOTE_TOKENIZER, TERMS.tokenizer());
+  private static final Parser<List<Token>> LEXER = TOKENIZER.lexer(Scanners.WHITESPACES.optional());
+  private static final Parser<?> KEYWORDS_AND_OPERATORS = Parsers.or(
+      TERMS.token("if", "else", "while", "for", "return", "int", "void"),
+      TERMS.token("+", "-", "*", "/", "=", "==", "!=", "<", "<=", ">", ">=", "(", ")", "{", "}", ";", ","),
+      Terminals.Identifier.PARSER, Terminals.IntegerLiteral.PARSER, Terminals.StringLiteral.PARSER)
+      .skipMany()
+      .from(TOKENIZER, Scanners.WHITESPACES.optional());
+
+  private String source;
+
+  @Setup public void generate() {
+    source = Corpus.generate("", i ->
+        "int f" + i + "(int a, int b) { if (a <= b) { return a * " + i + " + b; } else { s = \"s" + i + "\"; } }",
+        "\n", "", SIZE);
+  }
+
+  @Benchmark public Object lexer() {
+    return LEXER.parse(source);
+  }
+
+  @Benchmark public Object tokens() {
+    return KEYWORDS_AND_OPERATORS.parse(source);
+  }
+}
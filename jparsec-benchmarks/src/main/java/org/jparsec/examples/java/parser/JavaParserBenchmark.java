@@ -0,0 +1,74 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec.examples.java.parser;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jparsec.Parser;
+import org.jparsec.benchmarks.Corpus;
+import org.jparsec.examples.java.ast.declaration.Program;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the example Java parser with a generated compilation unit of {@code size}.
+ *
+ * @author Ben Yu
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Benchmark)
+public class JavaParserBenchmark {
+  private static final Parser<Program> PARSER = DeclarationParser.program();
+
+  @Param({"1KB", "1MB", "100MB"})
+  public String size;
+
+  private String source;
+
+  @Setup public void generate() {
+    source = Corpus.generate(
+        "package bench;\n\nimport java.util.List;\n\npublic class Generated {\n",
+        i -> "  private int field" + i + " = " + i + " * 3 + 1;\n"
+            + "  /** Method " + i + ". */\n"
+            + "  public List<String> method" + i + "(int a, String b) {\n"
+            + "    if (a > field" + i + ") {\n"
+            + "      return null;\n"
+            + "    }\n"
+            + "    for (int i = 0; i < a; i++) {\n"
+            + "      b = b + \"" + i + "\" + i;\n"
+            + "    }\n"
+            + "    return java.util.Collections.singletonList(b);\n"
+            + "  }\n",
+        "\n", "}\n", Corpus.size(size));
+  }
+
+  @Benchmark public Program parse() {
+    return TerminalParser.parse(PARSER, source);
+  }
+}
@@ -17,10 +17,11 @@ package org.jparsec.examples.calculator;
 
 import static org.jparsec.Scanners.isChar;
 
-import java.util.function.BinaryOperator;
-import java.util.function.UnaryOperator;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntUnaryOperator;
 
-import org.jparsec.OperatorTable;
+import org.jparsec.IntOperatorTable;
+import org.jparsec.IntParser;
 import org.jparsec.Parser;
 import org.jparsec.Scanners;
 
@@ -36,28 +37,28 @@ public final class Calculator {
     return parser().parse(source);
   }
   
-  static final Parser<Integer> NUMBER = Scanners.INTEGER.map(Integer::valueOf);
+  static final IntParser NUMBER = Scanners.INT;
   
-  static final BinaryOperator<Integer> PLUS = (a, b) -> a + b;
+  static final IntBinaryOperator PLUS = (a, b) -> a + b;
   
-  static final BinaryOperator<Integer> MINUS = (a, b) -> a - b;
+  static final IntBinaryOperator MINUS = (a, b) -> a - b;
   
-  static final BinaryOperator<Integer> MUL = (a, b) -> a * b;
+  static final IntBinaryOperator MUL = (a, b) -> a * b;
   
-  static final BinaryOperator<Integer> DIV = (a, b) -> a / b;
+  static final IntBinaryOperator DIV = (a, b) -> a / b;
   
-  static final BinaryOperator<Integer> MOD = (a, b) -> a % b;
+  static final IntBinaryOperator MOD = (a, b) -> a % b;
   
-  static final UnaryOperator<Integer> NEG = a -> -a;
+  static final IntUnaryOperator NEG = a -> -a;
   
   private static <T> Parser<T> op(char ch, T value) {
     return isChar(ch).retn(value);
   }
   
-  static Parser<Integer> parser() {
+  static IntParser parser() {
     Parser.Reference<Integer> ref = Parser.newReference();
-    Parser<Integer> term = ref.lazy().between(isChar('('), isChar(')')).or(NUMBER);
-    Parser<Integer> parser = new OperatorTable<Integer>()
+    IntParser term = ref.lazy().between(isChar('('), isChar(')')).mapToInt(Integer::intValue).or(NUMBER);
+    IntParser parser = new IntOperatorTable()
         .prefix(op('-', NEG), 100)
         .infixl(op('+', PLUS), 10)
         .infixl(op('-', MINUS), 10)
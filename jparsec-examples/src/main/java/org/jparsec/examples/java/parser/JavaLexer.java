@@ -37,7 +37,7 @@ public final class JavaLexer {
       .source();
   
   static final Parser<Void> DECIMAL_POINT_SCANNER =
-      Patterns.INTEGER.optional().next(Patterns.FRACTION).toScanner("decimal point number");
+      Patterns.INTEGER.optional().next(Patterns.FRACTION).compile().toScanner("decimal point number");
   
   static final Parser<DecimalPointNumberLiteral> DECIMAL_POINT_NUMBER = Parsers.sequence(
       DECIMAL_POINT_SCANNER.source(), numberType(NumberType.DOUBLE),
@@ -28,14 +28,16 @@ public class JavaScanners {
    * A {@link Pattern} object that matches an octal integer that starts with a {@code 0} and is followed by 1 or more
    * {@code [0 - 7]} characters. A Java octal is always at least two characters long.
    */
-  public static final Pattern OCT_INTEGER_PATTERN = Patterns.isChar('0').next(Patterns.many1(CharPredicates.range('0', '7')));
+  public static final Pattern OCT_INTEGER_PATTERN = Patterns.isChar('0').next(Patterns.many1(CharPredicates.range('0', '7')))
+      .compile();
 
   /**
    * A {@link Pattern} object that matches a decimal integer, which is either '0' or starts with a non-zero digit and is followed by 0 or
    * more digits.
    */
   public static final Pattern DEC_INTEGER_PATTERN = Patterns.or(Patterns.isChar('0').next(Patterns.not(Patterns.many1(CharPredicates.IS_DIGIT))),
-      Patterns.sequence(Patterns.isChar(CharPredicates.range('1', '9')), Patterns.many(CharPredicates.IS_DIGIT)));
+      Patterns.sequence(Patterns.isChar(CharPredicates.range('1', '9')), Patterns.many(CharPredicates.IS_DIGIT)))
+      .compile();
 
 
   /** Scanner for a decimal number. single character '0' is an integer literal
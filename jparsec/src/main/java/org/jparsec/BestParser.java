@@ -32,9 +32,9 @@ final class BestParser<T> extends Parser<T> {
     for (int i = 0; i < parsers.length; i++) {
       Parser<? extends T> parser = parsers[i];
       if (parser.apply(ctxt)) {
-        applyForBestFit(i + 1, ctxt, result, step, at, latestChild);
-        return true;
+        return ctxt.committedPast(at) || applyForBestFit(i + 1, ctxt, result, step, at, latestChild);
       }
+      if (ctxt.committedPast(at)) return false;
       // in alternate, we do not care partial match.
       ctxt.set(step, at, result);
     }
@@ -45,7 +45,8 @@ final class BestParser<T> extends Parser<T> {
     return order.toString();
   }
 
-  private void applyForBestFit(
+  /** Returns false if an alternative fails after {@link ParseContext#commit committing}. */
+  private boolean applyForBestFit(
       int from, ParseContext ctxt,
       Object originalResult, int originalStep, int originalAt, TreeNode originalLatestChild) {
     int bestAt = ctxt.at;
@@ -57,6 +58,8 @@ final class BestParser<T> extends Parser<T> {
       ctxt.getTrace().setLatestChild(originalLatestChild);
       Parser<?> parser = parsers[i];
       boolean ok = parser.apply(ctxt);
+      // A committed alternative wins, or fails all.
+      if (ctxt.committedPast(originalAt)) return ok;
       if (!ok) continue;
       int at2 = ctxt.at;
       if (order.compare(at2, bestAt)) {
@@ -68,5 +71,6 @@ final class BestParser<T> extends Parser<T> {
     }
     ctxt.set(bestStep, bestAt, bestResult);
     ctxt.getTrace().setLatestChild(bestChild);
+    return true;
   }
 }
\ No newline at end of file
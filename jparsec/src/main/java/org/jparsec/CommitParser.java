@@ -0,0 +1,39 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec;
+
+/**
+ * Runs the underlying parser and, if it succeeds, {@link ParseContext#commit commits} to where it ends.
+ *
+ * @author Ben Yu
+ */
+final class CommitParser<T> extends Parser<T> {
+  final Parser<T> parser;
+
+  CommitParser(Parser<T> parser) {
+    this.parser = parser;
+  }
+
+  @Override boolean apply(ParseContext ctxt) {
+    if (!parser.apply(ctxt)) return false;
+    ctxt.commit();
+    return true;
+  }
+
+  @Override public String toString() {
+    return parser.toString();
+  }
+}
@@ -41,6 +41,7 @@ final class DelimitedParser<T> extends Parser<List<T>> {
       final int at0 = ctxt.at;
       boolean r = ctxt.applyAsDelimiter(delim);
       if (!r) {
+        if (ctxt.committedPast(at0)) return false;
         ctxt.result = result;
         ctxt.setAt(step0, at0);
         return true;
@@ -49,6 +50,7 @@ final class DelimitedParser<T> extends Parser<List<T>> {
       final int at1 = ctxt.at;
       r = parser.apply(ctxt);
       if (!r) {
+        if (ctxt.committedPast(at1)) return false;
         ctxt.result = result;
         ctxt.setAt(step1, at1);
         return true;
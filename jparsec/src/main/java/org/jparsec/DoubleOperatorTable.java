@@ -0,0 +1,141 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec;
+
+import java.util.List;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+import org.jparsec.OperatorTable.Associativity;
+import org.jparsec.OperatorTable.Operator;
+import org.jparsec.internal.util.Lists;
+
+/**
+ * Builds {@link DoubleParser} to parse and evaluate {@code double} expressions with operator-precedence grammar,
+ * without boxing the intermediary values. Works like {@link OperatorTable}, for prefix and left-associative
+ * infix operators.
+ *
+ * <p>For example: <pre>   {@code
+ *   DoubleParser calculator = new DoubleOperatorTable()
+ *       .prefix(isChar('-').retn(a -> -a), 100)
+ *       .infixl(isChar('+').retn((a, b) -> a + b), 10)
+ *       .infixl(isChar('*').retn((a, b) -> a * b), 20)
+ *       .build(Scanners.DECIMAL.mapToDouble(Double::parseDouble));
+ * }</pre>
+ *
+ * @since 3.2
+ * @author Ben Yu
+ */
+public final class DoubleOperatorTable {
+
+  private final List<Operator> ops = Lists.arrayList();
+
+  /**
+   * Adds a prefix unary operator.
+   *
+   * @param parser the parser for the operator.
+   * @param precedence the precedence number.
+   * @return this.
+   */
+  public DoubleOperatorTable prefix(Parser<? extends DoubleUnaryOperator> parser, int precedence) {
+    ops.add(new Operator(parser, precedence, Associativity.PREFIX));
+    return this;
+  }
+
+  /**
+   * Adds an infix left-associative binary operator.
+   *
+   * @param parser the parser for the operator.
+   * @param precedence the precedence number.
+   * @return this.
+   */
+  public DoubleOperatorTable infixl(Parser<? extends DoubleBinaryOperator> parser, int precedence) {
+    ops.add(new Operator(parser, precedence, Associativity.LASSOC));
+    return this;
+  }
+
+  /**
+   * Builds an {@link DoubleParser} based on information in this {@link DoubleOperatorTable}.
+   *
+   * @param operand parser for the operands.
+   * @return the expression parser.
+   */
+  @SuppressWarnings("unchecked")
+  public DoubleParser build(DoubleParser operand) {
+    DoubleParser parser = operand;
+    for (Operator level : OperatorTable.levels(ops)) {
+      parser = level.associativity == Associativity.PREFIX
+          ? prefix((Parser<? extends DoubleUnaryOperator>) level.op, parser)
+          : infixl((Parser<? extends DoubleBinaryOperator>) level.op, parser);
+    }
+    return parser;
+  }
+
+  /** Same as {@link Parser#prefix}. The operators are applied from right to left as the recursion unwinds. */
+  private static DoubleParser prefix(Parser<? extends DoubleUnaryOperator> op, DoubleParser operand) {
+    return new DoubleParser() {
+      @Override boolean applyAsDouble(ParseContext ctxt) {
+        int at = ctxt.at;
+        int step = ctxt.step;
+        if (!op.apply(ctxt)) {
+          if (ctxt.committedPast(at)) return false;
+          ctxt.setAt(step, at);
+          return operand.applyAsDouble(ctxt);
+        }
+        if (ctxt.at == at) return operand.applyAsDouble(ctxt);
+        DoubleUnaryOperator f = op.getReturn(ctxt);
+        if (!applyAsDouble(ctxt)) return false;
+        ctxt.doubleResult = f.applyAsDouble(ctxt.doubleResult);
+        return true;
+      }
+      @Override public String toString() {
+        return "prefix";
+      }
+    };
+  }
+
+  /** Same as {@link Parser#infixl}. */
+  private static DoubleParser infixl(Parser<? extends DoubleBinaryOperator> op, DoubleParser operand) {
+    return new DoubleParser() {
+      @Override boolean applyAsDouble(ParseContext ctxt) {
+        if (!operand.applyAsDouble(ctxt)) return false;
+        double value = ctxt.doubleResult;
+        for (;;) {
+          int at = ctxt.at;
+          int step = ctxt.step;
+          if (!op.apply(ctxt)) {
+            if (ctxt.committedPast(at)) return false;
+            ctxt.setAt(step, at);
+            break;
+          }
+          DoubleBinaryOperator f = op.getReturn(ctxt);
+          if (!operand.applyAsDouble(ctxt)) {
+            if (ctxt.committedPast(at)) return false;
+            ctxt.setAt(step, at);
+            break;
+          }
+          if (ctxt.at == at) break;
+          value = f.applyAsDouble(value, ctxt.doubleResult);
+        }
+        ctxt.doubleResult = value;
+        return true;
+      }
+      @Override public String toString() {
+        return "infixl";
+      }
+    };
+  }
+}
@@ -0,0 +1,78 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec;
+
+import java.util.function.DoubleFunction;
+
+/**
+ * A {@link Parser} for {@code double} values. When combined with other primitive parsers, such as by
+ * {@link DoubleOperatorTable}, the values are passed along without being boxed.
+ *
+ * <p>Created by {@link Parser#mapToDouble}.
+ *
+ * @since 3.2
+ * @author Ben Yu
+ */
+public abstract class DoubleParser extends Parser<Double> {
+
+  DoubleParser() {}
+
+  /** Applies {@code this} with the result left in {@link ParseContext#doubleResult}. */
+  abstract boolean applyAsDouble(ParseContext ctxt);
+
+  @Override final boolean apply(ParseContext ctxt) {
+    if (!applyAsDouble(ctxt)) return false;
+    ctxt.result = ctxt.doubleResult;
+    return true;
+  }
+
+  /**
+   * {@code p1.or(p2)} is equivalent to {@code p1 | p2} in EBNF. Same as {@link Parser#or}, without boxing the
+   * result.
+   *
+   * @param alternative the alternative parser to run if this fails.
+   */
+  public final DoubleParser or(DoubleParser alternative) {
+    return new DoubleParser() {
+      @Override boolean applyAsDouble(ParseContext ctxt) {
+        final Object result = ctxt.result;
+        final int at = ctxt.at;
+        final int step = ctxt.step;
+        if (DoubleParser.this.applyAsDouble(ctxt)) return true;
+        if (ctxt.committedPast(at)) return false;
+        ctxt.set(step, at, result);
+        return alternative.applyAsDouble(ctxt);
+      }
+      @Override public String toString() {
+        return "or";
+      }
+    };
+  }
+
+  /** A {@link Parser} that transforms the {@code double} value of {@code this} using {@code map}. */
+  public final <R> Parser<R> mapToObj(DoubleFunction<? extends R> map) {
+    return new Parser<R>() {
+      @Override boolean apply(ParseContext ctxt) {
+        if (!applyAsDouble(ctxt)) return false;
+        ctxt.result = map.apply(ctxt.doubleResult);
+        return true;
+      }
+      @Override public String toString() {
+        return map.toString();
+      }
+    };
+  }
+}
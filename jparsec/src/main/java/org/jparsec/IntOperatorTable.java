@@ -0,0 +1,141 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec;
+
+import java.util.List;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntUnaryOperator;
+
+import org.jparsec.OperatorTable.Associativity;
+import org.jparsec.OperatorTable.Operator;
+import org.jparsec.internal.util.Lists;
+
+/**
+ * Builds {@link IntParser} to parse and evaluate {@code int} expressions with operator-precedence grammar,
+ * without boxing the intermediary values. Works like {@link OperatorTable}, for prefix and left-associative
+ * infix operators.
+ *
+ * <p>For example: <pre>   {@code
+ *   IntParser calculator = new IntOperatorTable()
+ *       .prefix(isChar('-').retn(a -> -a), 100)
+ *       .infixl(isChar('+').retn((a, b) -> a + b), 10)
+ *       .infixl(isChar('*').retn((a, b) -> a * b), 20)
+ *       .build(Scanners.INT);
+ * }</pre>
+ *
+ * @since 3.2
+ * @author Ben Yu
+ */
+public final class IntOperatorTable {
+
+  private final List<Operator> ops = Lists.arrayList();
+
+  /**
+   * Adds a prefix unary operator.
+   *
+   * @param parser the parser for the operator.
+   * @param precedence the precedence number.
+   * @return this.
+   */
+  public IntOperatorTable prefix(Parser<? extends IntUnaryOperator> parser, int precedence) {
+    ops.add(new Operator(parser, precedence, Associativity.PREFIX));
+    return this;
+  }
+
+  /**
+   * Adds an infix left-associative binary operator.
+   *
+   * @param parser the parser for the operator.
+   * @param precedence the precedence number.
+   * @return this.
+   */
+  public IntOperatorTable infixl(Parser<? extends IntBinaryOperator> parser, int precedence) {
+    ops.add(new Operator(parser, precedence, Associativity.LASSOC));
+    return this;
+  }
+
+  /**
+   * Builds an {@link IntParser} based on information in this {@link IntOperatorTable}.
+   *
+   * @param operand parser for the operands.
+   * @return the expression parser.
+   */
+  @SuppressWarnings("unchecked")
+  public IntParser build(IntParser operand) {
+    IntParser parser = operand;
+    for (Operator level : OperatorTable.levels(ops)) {
+      parser = level.associativity == Associativity.PREFIX
+          ? prefix((Parser<? extends IntUnaryOperator>) level.op, parser)
+          : infixl((Parser<? extends IntBinaryOperator>) level.op, parser);
+    }
+    return parser;
+  }
+
+  /** Same as {@link Parser#prefix}. The operators are applied from right to left as the recursion unwinds. */
+  private static IntParser prefix(Parser<? extends IntUnaryOperator> op, IntParser operand) {
+    return new IntParser() {
+      @Override boolean applyAsInt(ParseContext ctxt) {
+        int at = ctxt.at;
+        int step = ctxt.step;
+        if (!op.apply(ctxt)) {
+          if (ctxt.committedPast(at)) return false;
+          ctxt.setAt(step, at);
+          return operand.applyAsInt(ctxt);
+        }
+        if (ctxt.at == at) return operand.applyAsInt(ctxt);
+        IntUnaryOperator f = op.getReturn(ctxt);
+        if (!applyAsInt(ctxt)) return false;
+        ctxt.intResult = f.applyAsInt(ctxt.intResult);
+        return true;
+      }
+      @Override public String toString() {
+        return "prefix";
+      }
+    };
+  }
+
+  /** Same as {@link Parser#infixl}. */
+  private static IntParser infixl(Parser<? extends IntBinaryOperator> op, IntParser operand) {
+    return new IntParser() {
+      @Override boolean applyAsInt(ParseContext ctxt) {
+        if (!operand.applyAsInt(ctxt)) return false;
+        int value = ctxt.intResult;
+        for (;;) {
+          int at = ctxt.at;
+          int step = ctxt.step;
+          if (!op.apply(ctxt)) {
+            if (ctxt.committedPast(at)) return false;
+            ctxt.setAt(step, at);
+            break;
+          }
+          IntBinaryOperator f = op.getReturn(ctxt);
+          if (!operand.applyAsInt(ctxt)) {
+            if (ctxt.committedPast(at)) return false;
+            ctxt.setAt(step, at);
+            break;
+          }
+          if (ctxt.at == at) break;
+          value = f.applyAsInt(value, ctxt.intResult);
+        }
+        ctxt.intResult = value;
+        return true;
+      }
+      @Override public String toString() {
+        return "infixl";
+      }
+    };
+  }
+}
@@ -0,0 +1,78 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec;
+
+import java.util.function.IntFunction;
+
+/**
+ * A {@link Parser} for {@code int} values. When combined with other primitive parsers, such as by
+ * {@link IntOperatorTable}, the values are passed along without being boxed.
+ *
+ * <p>Created by {@link Parser#mapToInt} or {@link Scanners#INT}.
+ *
+ * @since 3.2
+ * @author Ben Yu
+ */
+public abstract class IntParser extends Parser<Integer> {
+
+  IntParser() {}
+
+  /** Applies {@code this} with the result left in {@link ParseContext#intResult}. */
+  abstract boolean applyAsInt(ParseContext ctxt);
+
+  @Override final boolean apply(ParseContext ctxt) {
+    if (!applyAsInt(ctxt)) return false;
+    ctxt.result = ctxt.intResult;
+    return true;
+  }
+
+  /**
+   * {@code p1.or(p2)} is equivalent to {@code p1 | p2} in EBNF. Same as {@link Parser#or}, without boxing the
+   * result.
+   *
+   * @param alternative the alternative parser to run if this fails.
+   */
+  public final IntParser or(IntParser alternative) {
+    return new IntParser() {
+      @Override boolean applyAsInt(ParseContext ctxt) {
+        final Object result = ctxt.result;
+        final int at = ctxt.at;
+        final int step = ctxt.step;
+        if (IntParser.this.applyAsInt(ctxt)) return true;
+        if (ctxt.committedPast(at)) return false;
+        ctxt.set(step, at, result);
+        return alternative.applyAsInt(ctxt);
+      }
+      @Override public String toString() {
+        return "or";
+      }
+    };
+  }
+
+  /** A {@link Parser} that transforms the {@code int} value of {@code this} using {@code map}. */
+  public final <R> Parser<R> mapToObj(IntFunction<? extends R> map) {
+    return new Parser<R>() {
+      @Override boolean apply(ParseContext ctxt) {
+        if (!applyAsInt(ctxt)) return false;
+        ctxt.result = map.apply(ctxt.intResult);
+        return true;
+      }
+      @Override public String toString() {
+        return map.toString();
+      }
+    };
+  }
+}
@@ -28,15 +28,25 @@ import org.jparsec.functors.Map5;
  */
 final class InternalFunctors {
   
-  static TokenMap<Token> tokenWithSameValue(final Object value) {
-    return new TokenMap<Token>() {
-      @Override public Token map(Token token) {
-        return (value == token.value()) ? token : null;
-      }
-      @Override public String toString() {
-        return String.valueOf(value);
-      }
-    };
+  static TokenMap<Token> tokenWithSameValue(Object value) {
+    return new TokenWithSameValue(value);
+  }
+
+  /** Recognizes the tokens whose value is {@link #value}. */
+  static final class TokenWithSameValue implements TokenMap<Token> {
+    final Object value;
+
+    TokenWithSameValue(Object value) {
+      this.value = value;
+    }
+
+    @Override public Token map(Token token) {
+      return (value == token.value()) ? token : null;
+    }
+
+    @Override public String toString() {
+      return String.valueOf(value);
+    }
   }
   
   @SuppressWarnings("rawtypes")
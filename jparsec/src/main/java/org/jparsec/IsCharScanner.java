@@ -0,0 +1,52 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec;
+
+import org.jparsec.pattern.CharPredicate;
+
+/**
+ * Consumes the current character if it satisfies a {@link CharPredicate}.
+ *
+ * @author Ben Yu
+ */
+final class IsCharScanner extends Parser<Void> {
+  final CharPredicate predicate;
+  final String name;
+
+  IsCharScanner(CharPredicate predicate) {
+    this.predicate = predicate;
+    this.name = predicate.toString();
+  }
+
+  @Override boolean apply(ParseContext ctxt) {
+    if (ctxt.isEof()) {
+      ctxt.missing(name);
+      return false;
+    }
+    char c = ctxt.peekChar();
+    if (predicate.isChar(c)) {
+      ctxt.next();
+      ctxt.result = null;
+      return true;
+    }
+    ctxt.missing(name);
+    return false;
+  }
+
+  @Override public String toString() {
+    return name;
+  }
+}
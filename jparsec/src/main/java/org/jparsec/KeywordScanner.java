@@ -0,0 +1,189 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Equivalent to {@code wordScanner.map(word -> keyword value, or defaultMap.apply(word) if not a keyword)}, only
+ * that the keywords are looked up in a perfect hash table, by hashing and comparing the matched characters in
+ * the source directly with case folded as needed. If {@code wordScanner} is a {@link Parser#source} scanner,
+ * the word {@code String} is only created for non-keywords. Words containing non-ASCII characters are looked up by
+ * {@link StringCase#toKey(String)} if the case of such characters isn't folded in place.
+ *
+ * @author Ben Yu
+ */
+final class KeywordScanner extends Parser<Object> {
+  private static final int SEEDS_PER_SIZE = 64;
+
+  final Parser<?> scanner;
+  private final boolean scansSource;
+  private final Function<String, ?> defaultMap;
+  private final StringCase stringCase;
+  private final boolean interning;
+
+  // keys[hash(keyword)] is the case folded keyword, with values[hash(keyword)] as its value.
+  private final String[] keys;
+  private final Object[] values;
+  private final int seed;
+  private final int minLength;
+  private final int maxLength;
+
+  // The keywords by StringCase.toKey(String), for words with non-ASCII characters, or null if not needed.
+  private final Map<String, Object> nonAsciiKeywords;
+
+  /** {@code keywords} must be unique according to {@code stringCase}. */
+  KeywordScanner(
+      Parser<String> wordScanner, String[] keywords, Object[] keywordValues,
+      StringCase stringCase, Function<String, ?> defaultMap, boolean interning) {
+    this.scansSource = wordScanner instanceof SourceParser;
+    this.scanner = scansSource ? ((SourceParser) wordScanner).parser : wordScanner;
+    this.defaultMap = defaultMap;
+    this.stringCase = stringCase;
+    this.interning = interning;
+    this.nonAsciiKeywords = stringCase.foldsAsciiOnly() ? new HashMap<>() : null;
+    String[] folded = new String[keywords.length];
+    Object[] foldedValues = new Object[keywords.length];
+    int count = 0;
+    int min = Integer.MAX_VALUE;
+    int max = -1;
+    for (int i = 0; i < keywords.length; i++) {
+      String key = stringCase.toKey(keywords[i]);
+      if (nonAsciiKeywords != null) {
+        nonAsciiKeywords.put(key, keywordValues[i]);
+        // Only ASCII words can match keys folded in place.
+        if (!isAscii(key, 0, key.length())) continue;
+      }
+      folded[count] = key;
+      foldedValues[count++] = keywordValues[i];
+      min = Math.min(min, key.length());
+      max = Math.max(max, key.length());
+    }
+    folded = Arrays.copyOf(folded, count);
+    this.minLength = min;
+    this.maxLength = max;
+    int size = Integer.highestOneBit(Math.max(count, 1)) * 2;
+    int seed = 0;
+    String[] table = new String[size];
+    while (!fill(table, folded, seed)) {
+      if (++seed == SEEDS_PER_SIZE) {
+        seed = 0;
+        size *= 2;
+      }
+      table = new String[size];
+    }
+    this.keys = table;
+    this.seed = seed;
+    this.values = new Object[size];
+    for (int i = 0; i < folded.length; i++) {
+      values[hash(folded[i], 0, folded[i].length())] = foldedValues[i];
+    }
+  }
+
+  @Override boolean apply(ParseContext ctxt) {
+    int begin = ctxt.getIndex();
+    if (!scanner.apply(ctxt)) return false;
+    if (scansSource) {
+      int end = ctxt.getIndex();
+      Object value = lookup(ctxt.source, begin, end);
+      ctxt.result = value == null ? map(ctxt, ctxt.source, begin, end, null) : value;
+    } else {
+      String word = (String) ctxt.result;
+      Object value = lookup(word, 0, word.length());
+      ctxt.result = value == null ? map(ctxt, word, 0, word.length(), word) : value;
+    }
+    return true;
+  }
+
+  /**
+   * Maps the non-keyword from {@code begin} to {@code end} in {@code src} with {@code defaultMap}, or returns the
+   * value interned for it if {@code interning}. {@code word} is the string of the non-keyword if already created.
+   */
+  private Object map(ParseContext ctxt, CharSequence src, int begin, int end, String word) {
+    if (!interning) {
+      return defaultMap.apply(word == null ? src.subSequence(begin, end).toString() : word);
+    }
+    SymbolTable symbols = ctxt.symbolTable();
+    int hash = SymbolTable.hash(src, begin, end);
+    Object value = symbols.get(this, src, begin, end, hash);
+    if (value == null) {
+      if (word == null) word = src.subSequence(begin, end).toString();
+      value = defaultMap.apply(word);
+      if (value != null) symbols.put(this, word, value, hash);
+    }
+    return value;
+  }
+
+  /** Returns the value of the keyword {@code word}, or null if it isn't a keyword. */
+  Object keyword(String word) {
+    return lookup(word, 0, word.length());
+  }
+
+  @Override public String toString() {
+    return "map";
+  }
+
+  private Object lookup(CharSequence src, int begin, int end) {
+    if (nonAsciiKeywords != null && !isAscii(src, begin, end)) {
+      return nonAsciiKeywords.get(stringCase.toKey(src.subSequence(begin, end).toString()));
+    }
+    int length = end - begin;
+    if (length < minLength || length > maxLength) return null;
+    int slot = hash(src, begin, end);
+    String key = keys[slot];
+    if (key == null || key.length() != length) return null;
+    for (int i = 0; i < length; i++) {
+      if (key.charAt(i) != stringCase.toKey(src.charAt(begin + i))) return null;
+    }
+    return values[slot];
+  }
+
+  private int hash(CharSequence src, int begin, int end) {
+    return hash(src, begin, end, seed, keys.length - 1);
+  }
+
+  private int hash(CharSequence src, int begin, int end, int seed, int mask) {
+    int multiplier = 31 + 2 * seed;
+    int h = end - begin;
+    for (int i = begin; i < end; i++) {
+      h = h * multiplier + stringCase.toKey(src.charAt(i));
+    }
+    h ^= h >>> 16;
+    h *= 0x85ebca6b;
+    h ^= h >>> 13;
+    return h & mask;
+  }
+
+  /** Puts {@code keywords} in {@code table} hashed with {@code seed}, returning false upon any collision. */
+  private boolean fill(String[] table, String[] keywords, int seed) {
+    for (String keyword : keywords) {
+      int slot = hash(keyword, 0, keyword.length(), seed, table.length - 1);
+      if (table[slot] != null) return false;
+      table[slot] = keyword;
+    }
+    return true;
+  }
+
+  private static boolean isAscii(CharSequence src, int begin, int end) {
+    for (int i = begin; i < end; i++) {
+      if (src.charAt(i) >= 128) return false;
+    }
+    return true;
+  }
+}
@@ -18,7 +18,6 @@ package org.jparsec;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.TreeSet;
 import java.util.function.Function;
 
@@ -40,12 +39,19 @@ final class Keywords {
   static Lexicon lexicon(
       Parser<String> wordScanner, Collection<String> keywordNames,
       StringCase stringCase, final Function<String, ?> defaultMap) {
-    HashMap<String, Object> map = new HashMap<String, Object>();
-    for (String n : unique(stringCase, keywordNames.toArray(new String[keywordNames.size()]))) {
-      Object value = Tokens.reserved(n);
-      map.put(stringCase.toKey(n), value);
+    return lexicon(wordScanner, keywordNames, stringCase, defaultMap, false);
+  }
+
+  /** If {@code interning}, the same non-keyword is only mapped once per parse. See {@link SymbolTable}. */
+  static Lexicon lexicon(
+      Parser<String> wordScanner, Collection<String> keywordNames,
+      StringCase stringCase, final Function<String, ?> defaultMap, boolean interning) {
+    String[] names = unique(stringCase, keywordNames.toArray(new String[keywordNames.size()]));
+    Object[] values = new Object[names.length];
+    for (int i = 0; i < names.length; i++) {
+      values[i] = Tokens.reserved(names[i]);
     }
-    Function<String, Object> keywordMap = stringCase.byKey(map::get);
-    return new Lexicon(keywordMap, wordScanner.map(Lexicon.fallback(keywordMap, defaultMap)));    
+    KeywordScanner scanner = new KeywordScanner(wordScanner, names, values, stringCase, defaultMap, interning);
+    return new Lexicon(scanner::keyword, scanner);
   }
 }
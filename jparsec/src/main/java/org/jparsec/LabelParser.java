@@ -0,0 +1,53 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec;
+
+/**
+ * Reports "expecting $name" if the labeled parser fails with no partial match, and names the
+ * parse tree node of the match.
+ *
+ * @author Ben Yu
+ */
+final class LabelParser<T> extends Parser<T> {
+  final Parser<T> parser;
+  final String name;
+
+  /** If true, {@link #parser} never fails so the label only matters for the parse tree. */
+  final boolean treeNodeOnly;
+
+  LabelParser(Parser<T> parser, String name) {
+    this(parser, name, false);
+  }
+
+  LabelParser(Parser<T> parser, String name, boolean treeNodeOnly) {
+    this.parser = parser;
+    this.name = name;
+    this.treeNodeOnly = treeNodeOnly;
+  }
+
+  @Override public Parser<T> label(String overrideName) {
+    return parser.label(overrideName);
+  }
+
+  @Override boolean apply(ParseContext ctxt) {
+    if (treeNodeOnly && !ctxt.isTracing()) return parser.apply(ctxt);
+    return ctxt.applyNewNode(parser, name);
+  }
+
+  @Override public String toString() {
+    return name;
+  }
+}
@@ -0,0 +1,82 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec;
+
+/**
+ * Applies the parser of a {@link Parser.Reference} with support of left recursion, by growing a seed match at each
+ * input position until it can't grow any longer.
+ *
+ * @author Ben Yu
+ */
+final class LeftRecursiveParser<T> extends Parser<T> {
+  private final Parser.Reference<T> ref;
+  private final int hash = System.identityHashCode(this);
+
+  LeftRecursiveParser(Parser.Reference<T> ref) {
+    this.ref = ref;
+  }
+
+  @Override boolean apply(ParseContext ctxt) {
+    MemoTable memo = ctxt.memoTable();
+    final int at = ctxt.at;
+    int slot = memo.find(this, hash, at);
+    if (slot >= 0) {
+      return memo.replay(slot, ctxt);
+    }
+    Parser<T> rule = ref.deref();
+    final int step = ctxt.step;
+    final Object result = ctxt.result;
+    final int errorGeneration = ctxt.errorGeneration();
+    final int errorCount = ctxt.errorCount();
+    final TreeNode latestChild = ctxt.getTrace().getLatestChild();
+
+    // The seed: left recursive calls at this position fail.
+    memo.put(this, hash, at, false, at, at, 0, result, null);
+    if (!rule.apply(ctxt)) {
+      memo.put(this, hash, at, false, ctxt.at, Math.max(ctxt.at, ctxt.errorAt()), ctxt.step - step,
+          ctxt.result, ctxt.errorsSince(errorGeneration, errorCount));
+      return false;
+    }
+    int end;
+    int steps;
+    Object value;
+    TreeNode child;
+    do {
+      if (ctxt.committedPast(at)) {
+        // Growing the match further would re-apply the rule from before the commit point.
+        ctxt.fail("Left recursive parser reference cannot grow past a commit.");
+        return false;
+      }
+      end = ctxt.at;
+      steps = ctxt.step - step;
+      value = ctxt.result;
+      child = ctxt.getTrace().getLatestChild();
+      memo.put(this, hash, at, true, end, end, steps, value, null);
+      ctxt.set(step, at, result);
+      ctxt.getTrace().setLatestChild(latestChild);
+    } while (rule.apply(ctxt) && ctxt.at > end);
+    if (ctxt.committedPast(end)) return false;
+    ctxt.set(step + steps, end, value);
+    ctxt.getTrace().setLatestChild(child);
+    memo.put(this, hash, at, true, end, Math.max(end, ctxt.errorAt()), steps, value,
+        ctxt.errorsSince(errorGeneration, errorCount));
+    return true;
+  }
+
+  @Override public String toString() {
+    return "lazy";
+  }
+}
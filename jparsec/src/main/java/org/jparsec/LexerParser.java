@@ -0,0 +1,96 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec;
+
+/**
+ * Lexes the input into a {@link TokenBuffer}, the same way as
+ * {@code delim.optional(null).next(tokenizer.token().sepEndBy(delim))} does into a list of {@link Token} objects.
+ *
+ * @author Ben Yu
+ */
+final class LexerParser extends Parser<TokenBuffer> {
+  private final Parser<?> tokenizer;
+  private final Parser<?> delim;
+
+  LexerParser(Parser<?> tokenizer, Parser<?> delim) {
+    this.tokenizer = tokenizer;
+    this.delim = delim;
+  }
+
+  /** Returned by {@link #lexFirst} and {@link #lexNext} when a token is lexed and there may be more. */
+  static final int MORE = 0;
+  /** Returned by {@link #lexFirst} and {@link #lexNext} when there are no more tokens. */
+  static final int DONE = 1;
+  /** Returned by {@link #lexFirst} and {@link #lexNext} when lexing fails. */
+  static final int FAILED = 2;
+
+  @Override boolean apply(ParseContext ctxt) {
+    TokenBuffer tokens = ctxt.tokenBuffer();
+    int status = lexFirst(ctxt, tokens);
+    while (status == MORE) {
+      status = lexNext(ctxt, tokens);
+    }
+    if (status == FAILED) return false;
+    ctxt.result = tokens;
+    return true;
+  }
+
+  /** Skips the leading delimiter, if any, and lexes the first token into {@code tokens}. */
+  int lexFirst(ParseContext ctxt, TokenBuffer tokens) {
+    int step = ctxt.step;
+    int at = ctxt.at;
+    if (!delim.apply(ctxt)) {
+      if (ctxt.committedPast(at)) return FAILED;
+      ctxt.setAt(step, at);
+    }
+    step = ctxt.step;
+    at = ctxt.at;
+    int begin = ctxt.getIndex();
+    if (!tokenizer.apply(ctxt)) {
+      if (ctxt.committedPast(at)) return FAILED;
+      ctxt.setAt(step, at);
+      return DONE;
+    }
+    tokens.add(begin, ctxt.getIndex() - begin, ctxt.result);
+    return MORE;
+  }
+
+  /** Lexes the delimiter and the token following the last token lexed into {@code tokens}. */
+  int lexNext(ParseContext ctxt, TokenBuffer tokens) {
+    final int step0 = ctxt.step;
+    final int at0 = ctxt.at;
+    if (!ctxt.applyAsDelimiter(delim)) {
+      if (ctxt.committedPast(at0)) return FAILED;
+      ctxt.setAt(step0, at0);
+      return DONE;
+    }
+    final int step1 = ctxt.step;
+    final int at1 = ctxt.at;
+    final int begin = ctxt.getIndex();
+    if (!tokenizer.apply(ctxt)) {
+      if (ctxt.committedPast(at1)) return FAILED;
+      ctxt.setAt(step1, at1);
+      return DONE;
+    }
+    if (at0 == ctxt.at) return DONE; // infinite loop
+    tokens.add(begin, ctxt.getIndex() - begin, ctxt.result);
+    return MORE;
+  }
+
+  @Override public String toString() {
+    return "lexer";
+  }
+}
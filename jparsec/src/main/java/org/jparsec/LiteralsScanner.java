@@ -0,0 +1,85 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec;
+
+import java.util.Arrays;
+
+/**
+ * Equivalent to {@code Parsers.or(Scanners.string(s1), Scanners.string(s2), ...)}, only that the
+ * literals are looked up by their first character instead of being tried one by one.
+ *
+ * @author Ben Yu
+ */
+final class LiteralsScanner extends Parser<Void> {
+  final String[] literals;
+  final String[] names;
+  private final int[][] candidates = new int[128][];
+
+  /** {@code literals} must not be empty strings. */
+  LiteralsScanner(String[] literals, String[] names) {
+    this.literals = literals;
+    this.names = names;
+    for (int i = 0; i < literals.length; i++) {
+      int bucket = literals[i].charAt(0) & 127;
+      int[] indices = candidates[bucket];
+      if (indices == null) {
+        indices = new int[] {i};
+      } else {
+        indices = Arrays.copyOf(indices, indices.length + 1);
+        indices[indices.length - 1] = i;
+      }
+      candidates[bucket] = indices;
+    }
+  }
+
+  @Override boolean apply(ParseContext ctxt) {
+    int matchLength = match(ctxt.characters(), ctxt.at, ctxt.charactersEnd());
+    if (matchLength >= 0) {
+      ctxt.next(matchLength);
+      ctxt.result = null;
+      return true;
+    }
+    for (String name : names) {
+      ctxt.missing(name);
+    }
+    return false;
+  }
+
+  /** Returns the length of the first literal that {@code src} has at {@code at} before {@code end}, or -1 if none. */
+  int match(CharSequence src, int at, int end) {
+    if (at >= end) return -1;
+    int[] indices = candidates[src.charAt(at) & 127];
+    if (indices == null) return -1;
+    for (int i : indices) {
+      String literal = literals[i];
+      if (matches(literal, src, at, end)) return literal.length();
+    }
+    return -1;
+  }
+
+  @Override public String toString() {
+    return "or";
+  }
+
+  private static boolean matches(String literal, CharSequence src, int at, int end) {
+    int length = literal.length();
+    if (end - at < length) return false;
+    for (int i = 0; i < length; i++) {
+      if (literal.charAt(i) != src.charAt(at + i)) return false;
+    }
+    return true;
+  }
+}
@@ -0,0 +1,141 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec;
+
+import java.util.List;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongUnaryOperator;
+
+import org.jparsec.OperatorTable.Associativity;
+import org.jparsec.OperatorTable.Operator;
+import org.jparsec.internal.util.Lists;
+
+/**
+ * Builds {@link LongParser} to parse and evaluate {@code long} expressions with operator-precedence grammar,
+ * without boxing the intermediary values. Works like {@link OperatorTable}, for prefix and left-associative
+ * infix operators.
+ *
+ * <p>For example: <pre>   {@code
+ *   LongParser calculator = new LongOperatorTable()
+ *       .prefix(isChar('-').retn(a -> -a), 100)
+ *       .infixl(isChar('+').retn((a, b) -> a + b), 10)
+ *       .infixl(isChar('*').retn((a, b) -> a * b), 20)
+ *       .build(Scanners.LONG);
+ * }</pre>
+ *
+ * @since 3.2
+ * @author Ben Yu
+ */
+public final class LongOperatorTable {
+
+  private final List<Operator> ops = Lists.arrayList();
+
+  /**
+   * Adds a prefix unary operator.
+   *
+   * @param parser the parser for the operator.
+   * @param precedence the precedence number.
+   * @return this.
+   */
+  public LongOperatorTable prefix(Parser<? extends LongUnaryOperator> parser, int precedence) {
+    ops.add(new Operator(parser, precedence, Associativity.PREFIX));
+    return this;
+  }
+
+  /**
+   * Adds an infix left-associative binary operator.
+   *
+   * @param parser the parser for the operator.
+   * @param precedence the precedence number.
+   * @return this.
+   */
+  public LongOperatorTable infixl(Parser<? extends LongBinaryOperator> parser, int precedence) {
+    ops.add(new Operator(parser, precedence, Associativity.LASSOC));
+    return this;
+  }
+
+  /**
+   * Builds an {@link LongParser} based on information in this {@link LongOperatorTable}.
+   *
+   * @param operand parser for the operands.
+   * @return the expression parser.
+   */
+  @SuppressWarnings("unchecked")
+  public LongParser build(LongParser operand) {
+    LongParser parser = operand;
+    for (Operator level : OperatorTable.levels(ops)) {
+      parser = level.associativity == Associativity.PREFIX
+          ? prefix((Parser<? extends LongUnaryOperator>) level.op, parser)
+          : infixl((Parser<? extends LongBinaryOperator>) level.op, parser);
+    }
+    return parser;
+  }
+
+  /** Same as {@link Parser#prefix}. The operators are applied from right to left as the recursion unwinds. */
+  private static LongParser prefix(Parser<? extends LongUnaryOperator> op, LongParser operand) {
+    return new LongParser() {
+      @Override boolean applyAsLong(ParseContext ctxt) {
+        int at = ctxt.at;
+        int step = ctxt.step;
+        if (!op.apply(ctxt)) {
+          if (ctxt.committedPast(at)) return false;
+          ctxt.setAt(step, at);
+          return operand.applyAsLong(ctxt);
+        }
+        if (ctxt.at == at) return operand.applyAsLong(ctxt);
+        LongUnaryOperator f = op.getReturn(ctxt);
+        if (!applyAsLong(ctxt)) return false;
+        ctxt.longResult = f.applyAsLong(ctxt.longResult);
+        return true;
+      }
+      @Override public String toString() {
+        return "prefix";
+      }
+    };
+  }
+
+  /** Same as {@link Parser#infixl}. */
+  private static LongParser infixl(Parser<? extends LongBinaryOperator> op, LongParser operand) {
+    return new LongParser() {
+      @Override boolean applyAsLong(ParseContext ctxt) {
+        if (!operand.applyAsLong(ctxt)) return false;
+        long value = ctxt.longResult;
+        for (;;) {
+          int at = ctxt.at;
+          int step = ctxt.step;
+          if (!op.apply(ctxt)) {
+            if (ctxt.committedPast(at)) return false;
+            ctxt.setAt(step, at);
+            break;
+          }
+          LongBinaryOperator f = op.getReturn(ctxt);
+          if (!operand.applyAsLong(ctxt)) {
+            if (ctxt.committedPast(at)) return false;
+            ctxt.setAt(step, at);
+            break;
+          }
+          if (ctxt.at == at) break;
+          value = f.applyAsLong(value, ctxt.longResult);
+        }
+        ctxt.longResult = value;
+        return true;
+      }
+      @Override public String toString() {
+        return "infixl";
+      }
+    };
+  }
+}
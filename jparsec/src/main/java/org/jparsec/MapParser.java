@@ -0,0 +1,45 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec;
+
+import java.util.function.Function;
+
+/**
+ * Transforms the return value of a parser with a {@link Function}.
+ *
+ * @author Ben Yu
+ */
+final class MapParser<F, T> extends Parser<T> {
+  final Parser<F> parser;
+  final Function<? super F, ? extends T> map;
+
+  MapParser(Parser<F> parser, Function<? super F, ? extends T> map) {
+    this.parser = parser;
+    this.map = map;
+  }
+
+  @Override boolean apply(ParseContext ctxt) {
+    final boolean r = parser.apply(ctxt);
+    if (r) {
+      ctxt.result = map.apply(parser.getReturn(ctxt));
+    }
+    return r;
+  }
+
+  @Override public String toString() {
+    return map.toString();
+  }
+}
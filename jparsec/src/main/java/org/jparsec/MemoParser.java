@@ -0,0 +1,58 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec;
+
+/**
+ * Runs the underlying parser at most once per input position, as in packrat parsing.
+ *
+ * @author Ben Yu
+ */
+final class MemoParser<T> extends Parser<T> {
+  final Parser<T> parser;
+
+  /** Whether the results can be moved along with the input after an edit, as they don't embed positions. */
+  final boolean relocatable;
+  private final int hash = System.identityHashCode(this);
+
+  MemoParser(Parser<T> parser, boolean relocatable) {
+    this.parser = parser;
+    this.relocatable = relocatable;
+  }
+
+  @Override boolean apply(ParseContext ctxt) {
+    // Reused results would leave holes in the parse tree.
+    if (ctxt.isTracing()) return parser.apply(ctxt);
+    MemoTable memo = ctxt.memoTable();
+    int at = ctxt.at;
+    int slot = memo.find(this, hash, at);
+    if (slot >= 0) {
+      return memo.replay(slot, ctxt);
+    }
+    int step = ctxt.step;
+    int errorGeneration = ctxt.errorGeneration();
+    int errorCount = ctxt.errorCount();
+    boolean ok = parser.apply(ctxt);
+    if (ctxt.recordsErrors()) {
+      memo.put(this, hash, at, ok, ctxt.at, Math.max(ctxt.at, ctxt.errorAt()), ctxt.step - step, ctxt.result,
+          ctxt.errorsSince(errorGeneration, errorCount));
+    }
+    return ok;
+  }
+
+  @Override public String toString() {
+    return parser.toString();
+  }
+}
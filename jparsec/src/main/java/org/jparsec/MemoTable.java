@@ -0,0 +1,197 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec;
+
+import java.util.Arrays;
+
+import org.jparsec.ParseContext.ErrorSnapshot;
+
+/**
+ * Results of {@link Parser#memoize memoized} parsers, keyed by parser identity and input position.
+ *
+ * <p>Uses open addressing with linear probing over parallel arrays, so neither lookups nor insertions allocate
+ * key objects.
+ *
+ * @author Ben Yu
+ */
+final class MemoTable {
+  private static final int INITIAL_CAPACITY = 64;
+
+  private Object[] parsers = new Object[INITIAL_CAPACITY];
+  private int[] hashes = new int[INITIAL_CAPACITY];
+  private int[] positions = new int[INITIAL_CAPACITY];
+  private boolean[] outcomes = new boolean[INITIAL_CAPACITY];
+  private int[] ends = new int[INITIAL_CAPACITY];
+  private int[] examined = new int[INITIAL_CAPACITY];
+  private int[] steps = new int[INITIAL_CAPACITY];
+  private Object[] results = new Object[INITIAL_CAPACITY];
+  private ErrorSnapshot[] errors = new ErrorSnapshot[INITIAL_CAPACITY];
+  private int size = 0;
+
+  /** Returns the slot of the entry for {@code parser} at {@code at}, or {@code -1} if absent. */
+  int find(Object parser, int hash, int at) {
+    int mask = parsers.length - 1;
+    for (int i = slot(hash, at) & mask; ; i = (i + 1) & mask) {
+      Object key = parsers[i];
+      if (key == null) return -1;
+      if (key == parser && positions[i] == at) return i;
+    }
+  }
+
+  /**
+   * Records that {@code parser} applied at {@code at} ended at {@code end} after {@code steps} logical steps,
+   * with {@code result} and the {@code errors} it raised, having looked at the input up to about {@code examined}.
+   */
+  void put(Object parser, int hash, int at,
+      boolean succeeded, int end, int examined, int steps, Object result, ErrorSnapshot errors) {
+    if ((size + 1) * 2 > parsers.length) {
+      rehash(parsers.length * 2, Integer.MIN_VALUE);
+    }
+    int i = insertionSlot(parser, hash, at);
+    if (parsers[i] == null) {
+      size++;
+      parsers[i] = parser;
+      hashes[i] = hash;
+      positions[i] = at;
+    }
+    this.outcomes[i] = succeeded;
+    this.ends[i] = end;
+    this.examined[i] = examined;
+    this.steps[i] = steps;
+    this.results[i] = result;
+    this.errors[i] = errors;
+  }
+
+  /** Restores the outcome recorded in {@code slot} into {@code ctxt}. */
+  boolean replay(int slot, ParseContext ctxt) {
+    ErrorSnapshot recorded = errors[slot];
+    if (recorded != null) {
+      ctxt.replayErrors(recorded);
+    }
+    ctxt.set(ctxt.step + steps[slot], ends[slot], results[slot]);
+    return outcomes[slot];
+  }
+
+  /** Removes all entries, keeping the arrays. */
+  void clear() {
+    if (size == 0) return;
+    Arrays.fill(parsers, null);
+    Arrays.fill(results, null);
+    Arrays.fill(errors, null);
+    size = 0;
+  }
+
+  /** Removes the entries at positions before {@code at}. */
+  void forgetBefore(int at) {
+    int remaining = 0;
+    for (int i = 0; i < parsers.length; i++) {
+      if (parsers[i] != null && positions[i] >= at) remaining++;
+    }
+    if (remaining == size) return;
+    int capacity = INITIAL_CAPACITY;
+    while ((remaining + 1) * 2 > capacity) {
+      capacity *= 2;
+    }
+    rehash(capacity, at);
+    size = remaining;
+  }
+
+  /**
+   * Adjusts the entries to the input with the {@code removed} characters at {@code offset} replaced by
+   * {@code inserted} characters. The entries that looked at the replaced characters, or at most {@code lookahead}
+   * characters short of them, are removed. The entries after the replaced characters are moved if their results are
+   * {@link MemoParser#relocatable relocatable}, or removed otherwise.
+   */
+  void relocate(int offset, int removed, int inserted, int lookahead) {
+    int delta = inserted - removed;
+    int remaining = 0;
+    for (int i = 0; i < parsers.length; i++) {
+      if (parsers[i] == null) continue;
+      if (examined[i] <= offset - lookahead) {
+        remaining++;
+      } else if (positions[i] >= offset + removed && isRelocatable(parsers[i])) {
+        positions[i] += delta;
+        ends[i] += delta;
+        examined[i] += delta;
+        if (errors[i] != null) errors[i] = errors[i].moveBy(delta);
+        remaining++;
+      } else {
+        positions[i] = -1;
+      }
+    }
+    rehash(parsers.length, 0);
+    size = remaining;
+  }
+
+  private static boolean isRelocatable(Object parser) {
+    return parser instanceof MemoParser && ((MemoParser<?>) parser).relocatable;
+  }
+
+  /** Number of entries. */
+  int size() {
+    return size;
+  }
+
+  private int insertionSlot(Object parser, int hash, int at) {
+    int mask = parsers.length - 1;
+    int i = slot(hash, at) & mask;
+    for (; parsers[i] != null; i = (i + 1) & mask) {
+      if (parsers[i] == parser && positions[i] == at) break;
+    }
+    return i;
+  }
+
+  /** Moves the entries at or after {@code from} into new arrays of {@code capacity}. */
+  private void rehash(int capacity, int from) {
+    Object[] oldParsers = parsers;
+    int[] oldHashes = hashes;
+    int[] oldPositions = positions;
+    boolean[] oldOutcomes = outcomes;
+    int[] oldEnds = ends;
+    int[] oldExamined = examined;
+    int[] oldSteps = steps;
+    Object[] oldResults = results;
+    ErrorSnapshot[] oldErrors = errors;
+    parsers = new Object[capacity];
+    hashes = new int[capacity];
+    positions = new int[capacity];
+    outcomes = new boolean[capacity];
+    ends = new int[capacity];
+    examined = new int[capacity];
+    steps = new int[capacity];
+    results = new Object[capacity];
+    errors = new ErrorSnapshot[capacity];
+    for (int j = 0; j < oldParsers.length; j++) {
+      Object parser = oldParsers[j];
+      if (parser == null || oldPositions[j] < from) continue;
+      int i = insertionSlot(parser, oldHashes[j], oldPositions[j]);
+      parsers[i] = parser;
+      hashes[i] = oldHashes[j];
+      positions[i] = oldPositions[j];
+      outcomes[i] = oldOutcomes[j];
+      ends[i] = oldEnds[j];
+      examined[i] = oldExamined[j];
+      steps[i] = oldSteps[j];
+      results[i] = oldResults[j];
+      errors[i] = oldErrors[j];
+    }
+  }
+
+  private static int slot(int hash, int at) {
+    int h = (hash + at) * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+}
@@ -0,0 +1,124 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Equivalent to {@code Parsers.or(Scanners.string(op1).retn(value1), Scanners.string(op2).retn(value2), ...)} with
+ * longer operators tried before their prefixes, only that the longest operator is matched in one pass over the
+ * input using a character trie.
+ *
+ * @author Ben Yu
+ */
+final class OperatorScanner extends Parser<Object> {
+  final String[] operators;
+
+  // trie node i has children[i][k] under the character labels[i][k], and matches values[i] if not null.
+  private final char[][] labels;
+  private final int[][] children;
+  private final Object[] values;
+
+  /** {@code operators} must not be empty strings, and are reported in their order upon failure. */
+  OperatorScanner(String[] operators, Object[] values) {
+    this.operators = operators;
+    List<char[]> labelList = new ArrayList<char[]>();
+    List<int[]> childList = new ArrayList<int[]>();
+    List<Object> valueList = new ArrayList<Object>();
+    labelList.add(new char[0]);
+    childList.add(new int[0]);
+    valueList.add(null);
+    for (int i = 0; i < operators.length; i++) {
+      String operator = operators[i];
+      int node = 0;
+      for (int j = 0; j < operator.length(); j++) {
+        char c = operator.charAt(j);
+        char[] nodeLabels = labelList.get(node);
+        int k = Arrays.binarySearch(nodeLabels, c);
+        if (k >= 0) {
+          node = childList.get(node)[k];
+          continue;
+        }
+        int child = labelList.size();
+        labelList.add(new char[0]);
+        childList.add(new int[0]);
+        valueList.add(null);
+        int insertAt = -k - 1;
+        labelList.set(node, insert(nodeLabels, insertAt, c));
+        childList.set(node, insert(childList.get(node), insertAt, child));
+        node = child;
+      }
+      if (valueList.get(node) == null) valueList.set(node, values[i]);
+    }
+    this.labels = labelList.toArray(new char[labelList.size()][]);
+    this.children = childList.toArray(new int[childList.size()][]);
+    this.values = valueList.toArray();
+  }
+
+  @Override boolean apply(ParseContext ctxt) {
+    CharSequence src = ctxt.characters();
+    int length = ctxt.charactersEnd();
+    int node = 0;
+    int matchLength = 0;
+    Object value = null;
+    for (int i = ctxt.at; i < length; ) {
+      int k = Arrays.binarySearch(labels[node], src.charAt(i));
+      if (k < 0) break;
+      node = children[node][k];
+      i++;
+      if (values[node] != null) {
+        value = values[node];
+        matchLength = i - ctxt.at;
+      }
+    }
+    if (value == null) {
+      for (String operator : operators) {
+        ctxt.missing(operator);
+      }
+      return false;
+    }
+    ctxt.next(matchLength);
+    ctxt.result = value;
+    return true;
+  }
+
+  /** Returns the characters that the operators start with. */
+  String firstChars() {
+    return new String(labels[0]);
+  }
+
+  @Override public String toString() {
+    return "or";
+  }
+
+  private static char[] insert(char[] array, int index, char c) {
+    char[] result = new char[array.length + 1];
+    System.arraycopy(array, 0, result, 0, index);
+    result[index] = c;
+    System.arraycopy(array, index, result, index + 1, array.length - index);
+    return result;
+  }
+
+  private static int[] insert(int[] array, int index, int i) {
+    int[] result = new int[array.length + 1];
+    System.arraycopy(array, 0, result, 0, index);
+    result[index] = i;
+    System.arraycopy(array, index, result, index + 1, array.length - index);
+    return result;
+  }
+}
@@ -15,6 +15,7 @@
  *****************************************************************************/
 package org.jparsec;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.function.BiFunction;
@@ -196,6 +197,21 @@ public final class OperatorTable<T> {
     return ret;
   }
   
+  /**
+   * Groups {@code ops} of the same precedence and associativity, from the highest precedence, into operators
+   * whose parser tries each operator parser in the group.
+   */
+  static List<Operator> levels(List<Operator> ops) {
+    Operator[] sorted = ops.toArray(new Operator[ops.size()]);
+    Arrays.sort(sorted);
+    List<Operator> levels = Lists.arrayList();
+    for (int begin = 0, end; begin < sorted.length; begin = end) {
+      for (end = begin + 1; end < sorted.length && sorted[end].compareTo(sorted[begin]) == 0; end++) {}
+      levels.add(new Operator(slice(sorted, begin, end), sorted[begin].precedence, sorted[begin].associativity));
+    }
+    return levels;
+  }
+
   private static Parser<?> slice(Operator[] ops, int begin, int end) {
     Parser<?>[] ps = new Parser<?>[end - begin];
     for (int i = 0; i < ps.length; i++) {
@@ -0,0 +1,158 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec;
+
+import org.jparsec.ParseContext.ErrorSnapshot;
+import org.jparsec.internal.util.IntList;
+
+/**
+ * Tries each alternative in order until one succeeds, undoing any partial match of the failed ones unless it
+ * {@link ParseContext#commit committed}.
+ *
+ * @author Ben Yu
+ */
+final class OrParser<T> extends Parser<T> {
+  final Parser<? extends T>[] alternatives;
+
+  /**
+   * If not null, the indices of the alternatives that can match when the current character is
+   * {@code c < 128} are at {@code dispatch[c]}, and those that can match at EOF are at
+   * {@code dispatch[128]}.
+   */
+  private final int[][] dispatch;
+
+  /** If not null, looks up the alternatives that can match the current token. */
+  private final TokenDispatch tokenDispatch;
+
+  OrParser(Parser<? extends T>[] alternatives) {
+    this(alternatives, null, null);
+  }
+
+  OrParser(Parser<? extends T>[] alternatives, int[][] dispatch) {
+    this(alternatives, dispatch, null);
+  }
+
+  OrParser(Parser<? extends T>[] alternatives, TokenDispatch tokenDispatch) {
+    this(alternatives, null, tokenDispatch);
+  }
+
+  private OrParser(Parser<? extends T>[] alternatives, int[][] dispatch, TokenDispatch tokenDispatch) {
+    this.alternatives = alternatives;
+    this.dispatch = dispatch;
+    this.tokenDispatch = tokenDispatch;
+  }
+
+  @Override boolean apply(ParseContext ctxt) {
+    final Object result = ctxt.result;
+    final int at = ctxt.at;
+    final int step = ctxt.step;
+    int[] candidates = null;
+    if (dispatch != null) {
+      int c = ctxt.isEof() ? -1 : ctxt.peekChar();
+      if (c < 128) candidates = dispatch[c < 0 ? 128 : c];
+    } else if (tokenDispatch != null && !ctxt.isEof()) {
+      candidates = tokenDispatch.candidates(ctxt.getToken());
+    }
+    if (candidates != null) return applyCandidates(ctxt, candidates, result, at, step);
+    for(Parser<? extends T> p : alternatives) {
+      if (p.apply(ctxt)) {
+        return true;
+      }
+      if (ctxt.committedPast(at)) return false;
+      ctxt.set(step, at, result);
+    }
+    return false;
+  }
+
+  /**
+   * Applies the {@code candidates}, which are the only alternatives that can match at the current position. Should
+   * none of them match input, the others are run too so that they report their errors, with the errors of the
+   * candidates replayed in between to keep them in alternative order. No candidate is applied twice, or else
+   * nested ors would redo their work exponentially upon failure.
+   */
+  private boolean applyCandidates(ParseContext ctxt, int[] candidates, Object result, int at, int step) {
+    IntList errors = ctxt.alternativeErrors;
+    int base = errors.size();
+    int matched = -1;
+    for (int j = 0; j < candidates.length; j++) {
+      int generation = ctxt.errorGeneration();
+      int count = ctxt.errorCount();
+      boolean ok = alternatives[candidates[j]].apply(ctxt);
+      if (ok && ctxt.at != at) {
+        errors.truncate(base);
+        return true;
+      }
+      // The errors of the candidate are the last ones, unless it moved the error state.
+      errors.add(ctxt.errorGeneration());
+      errors.add(generation == ctxt.errorGeneration() ? count : 0);
+      errors.add(ctxt.errorCount());
+      if (ok) {
+        // What follows an empty match may fail right here, where the others would have reported errors too.
+        matched = j;
+        break;
+      }
+      if (ctxt.committedPast(at)) {
+        errors.truncate(base);
+        return false;
+      }
+      ctxt.set(step, at, result);
+    }
+    if (ctxt.errorAt() > at) {
+      // The others fail right here, before the errors recorded.
+      errors.truncate(base);
+      return matched >= 0;
+    }
+    int tried = matched >= 0 ? matched + 1 : candidates.length;
+    ErrorSnapshot[] replayed = new ErrorSnapshot[tried];
+    if (ctxt.mergesErrors()) {
+      int generation = ctxt.errorGeneration();
+      int forgotten = -1;
+      for (int j = 0; j < tried; j++) {
+        int k = base + j * 3;
+        int from = errors.get(k + 1);
+        int to = errors.get(k + 2);
+        if (errors.get(k) != generation || from == to) continue;
+        if (forgotten < 0) forgotten = from;
+        replayed[j] = ctxt.errorsBetween(from, to);
+      }
+      if (forgotten >= 0) ctxt.forgetErrorsSince(generation, forgotten);
+    }
+    errors.truncate(base);
+    final int matchedStep = ctxt.step;
+    final Object matchedResult = ctxt.result;
+    final TreeNode matchedChild = ctxt.getTrace().getLatestChild();
+    ctxt.set(step, at, result);
+    int last = matched >= 0 ? candidates[matched] : alternatives.length - 1;
+    for (int i = 0, j = 0; i <= last; i++) {
+      if (j < tried && candidates[j] == i) {
+        if (replayed[j] != null) ctxt.replayErrors(replayed[j]);
+        j++;
+        continue;
+      }
+      if (alternatives[i].apply(ctxt)) return true;
+      if (ctxt.committedPast(at)) return false;
+      ctxt.set(step, at, result);
+    }
+    if (matched < 0) return false;
+    ctxt.set(matchedStep, at, matchedResult);
+    ctxt.getTrace().setLatestChild(matchedChild);
+    return true;
+  }
+
+  @Override public String toString() {
+    return "or";
+  }
+}
@@ -0,0 +1,97 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import org.jparsec.internal.util.IntList;
+import org.jparsec.pattern.Pattern;
+
+/**
+ * Splits the source into chunks of records at the matches of a boundary pattern, and parses the chunks in parallel.
+ *
+ * @author Ben Yu
+ */
+final class ParallelParsing {
+
+  /** Chunks per worker thread, so that a slow chunk doesn't leave the other threads idle for long. */
+  private static final int CHUNKS_PER_THREAD = 4;
+
+  static <T> List<T> parse(Parser<T> record, CharSequence source, Pattern boundary, ForkJoinPool pool) {
+    Parser<List<T>> records = record.many().followedBy(Parsers.EOF);
+    IntList ends = split(source, boundary, pool.getParallelism() * CHUNKS_PER_THREAD);
+    List<ForkJoinTask<List<T>>> tasks = new ArrayList<ForkJoinTask<List<T>>>(ends.size());
+    for (int i = 0; i < ends.size(); i++) {
+      int from = i == 0 ? 0 : ends.get(i - 1);
+      int to = ends.get(i);
+      // The locator maps the indices in the entire source, and only scans upon error.
+      tasks.add(pool.submit(
+          () -> new ScannerState(null, source, from, to, new SourceLocator(source), null).run(records)));
+    }
+    List<T> result = new ArrayList<T>();
+    try {
+      for (ForkJoinTask<List<T>> task : tasks) {
+        result.addAll(join(task));
+      }
+    } finally {
+      for (ForkJoinTask<List<T>> task : tasks) {
+        task.cancel(false);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the end indices of about {@code chunks} chunks of {@code source}, each ending right after a match of
+   * {@code boundary} except the last one.
+   */
+  static IntList split(CharSequence source, Pattern boundary, int chunks) {
+    int length = source.length();
+    int size = Math.max(1, length / Math.max(1, chunks));
+    IntList ends = new IntList();
+    for (int from = 0; from < length; ) {
+      int end = length;
+      for (int i = from + size; i < length; i++) {
+        int matched = boundary.match(source, i, length);
+        if (matched != Pattern.MISMATCH) {
+          end = i + matched;
+          break;
+        }
+      }
+      ends.add(end);
+      from = end;
+    }
+    return ends;
+  }
+
+  private static <T> T join(ForkJoinTask<T> task) {
+    try {
+      return task.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+      if (cause instanceof Error) throw (Error) cause;
+      throw new IllegalStateException(cause);
+    }
+  }
+}
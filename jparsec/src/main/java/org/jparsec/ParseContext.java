@@ -19,11 +19,13 @@ import static org.jparsec.internal.util.Checks.checkState;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import org.jparsec.error.ParseErrorDetails;
 import org.jparsec.error.ParserException;
 import org.jparsec.internal.annotations.Private;
+import org.jparsec.internal.util.IntList;
 import org.jparsec.internal.util.Lists;
 
 /**
@@ -48,6 +50,15 @@ abstract class ParseContext {
   /** The current parse result. */
   Object result;
 
+  /** The current parse result of an {@link IntParser}, before it's boxed into {@link #result}. */
+  int intResult;
+
+  /** The current parse result of a {@link LongParser}, before it's boxed into {@link #result}. */
+  long longResult;
+
+  /** The current parse result of a {@link DoubleParser}, before it's boxed into {@link #result}. */
+  double doubleResult;
+
   private ParserTrace trace = new ParserTrace() {
     @Override public void push(String name) {}
     @Override public void pop() {}
@@ -92,10 +103,26 @@ abstract class ParseContext {
   private final ArrayList<Object> errors = Lists.arrayList(32);
   private String encountered = null; // for explicitly setting encountered token into ScannerState.
   private TreeNode currentErrorNode = null;
+  private int errorGeneration = 0; // bumped whenever the error state is reset.
   
   // explicit suppresses error recording if true.
   private boolean errorSuppressed = false;
+  // only the farthest error position is tracked if true.
+  private boolean errorsDeferred = false;
   private ErrorType overrideErrorType = ErrorType.NONE;
+
+  private MemoTable memoTable = null;
+  private SymbolTable symbolTable = null;
+
+  /** Where the errors of the alternatives tried by {@link OrParser} are, as a stack shared by nested ones. */
+  final IntList alternativeErrors = new IntList();
+
+  /** Parsing no longer backtracks to any position before this one. See {@link #commit}. */
+  private int committedAt = 0;
+
+  /** The token level state of the previous {@link Parsers#nested nested} parser, to be reused. */
+  private ParserState nestedState = null;
+  private TokenBuffer tokenBuffer = null;
   
   //caller should not change input after it is passed in.
   ParseContext(CharSequence source, int at, String module, SourceLocator locator) {
@@ -113,6 +140,70 @@ abstract class ParseContext {
     this.currentErrorAt = at;
   }
 
+  /**
+   * Resets to the initial state to parse again from {@code at}, keeping the allocated buffers. The
+   * {@link #memoTable} is kept too, so the caller has to clear or relocate it as needed.
+   */
+  void reset(int at, Object ret) {
+    this.at = at;
+    this.step = 0;
+    this.result = ret;
+    this.currentErrorType = ErrorType.NONE;
+    this.currentErrorAt = at;
+    this.currentErrorIndex = 0;
+    this.currentErrorNode = null;
+    this.encountered = null;
+    this.errors.clear();
+    this.errorGeneration++;
+    this.errorSuppressed = false;
+    this.errorsDeferred = false;
+    this.overrideErrorType = ErrorType.NONE;
+    this.committedAt = 0;
+    if (symbolTable != null) symbolTable.clear();
+    alternativeErrors.truncate(0);
+  }
+
+  /**
+   * Returns the state to parse {@code tokens} nested in this one, which reuses the previous nested state unless
+   * tracing or still in use.
+   */
+  final ParserState nestedState(TokenBuffer tokens) {
+    if (isTracing()) {
+      return new ParserState(module, source, tokens, 0, locator, getIndex(), tokens);
+    }
+    ParserState state = nestedState;
+    nestedState = null;  // in use
+    if (state == null) {
+      return new ParserState(module, source, tokens, 0, locator, getIndex(), tokens);
+    }
+    state.reset(tokens, getIndex());
+    return state;
+  }
+
+  /** Returns {@code state} from {@link #nestedState} to be reused, along with the tokens it parsed. */
+  final void releaseNestedState(ParserState state) {
+    if (isTracing()) return;
+    nestedState = state;
+    tokenBuffer = state.tokens();
+  }
+
+  /** Returns an empty {@link TokenBuffer} to lex into, reusing the one last released if any. */
+  final TokenBuffer tokenBuffer() {
+    TokenBuffer buffer = tokenBuffer;
+    tokenBuffer = null;  // in use
+    if (buffer == null) return new TokenBuffer();
+    buffer.clear();
+    return buffer;
+  }
+
+  /**
+   * Only keeps track of where the farthest error is, not what was expected there. The errors can't be
+   * rendered afterwards, so the caller has to parse again to report them.
+   */
+  final void deferErrors() {
+    errorsDeferred = true;
+  }
+
   /** Runs {@code parser} with error recording suppressed. */
   final boolean withErrorSuppressed(Parser<?> parser) {
     boolean oldValue = errorSuppressed;
@@ -156,6 +247,7 @@ abstract class ParseContext {
 
   final boolean applyNested(Parser<?> parser, ParseContext nestedState) {
     // nested is either the token-level parser, or the inner scanner of a subpattern.
+    nestedState.errorsDeferred = errorsDeferred;
     try {
       if (parser.apply(nestedState))  {
         set(nestedState.step, at, nestedState.result);
@@ -192,7 +284,71 @@ abstract class ParseContext {
   final ParserTrace getTrace() {
     return trace;
   }
+
+  /** Whether parse tree tracing is enabled. */
+  final boolean isTracing() {
+    return trace.getCurrentNode() != null;
+  }
+
+  /**
+   * Declares that parsing no longer backtracks to any position before the current one. The errors recorded and the
+   * results memoized before it are dropped, so are the characters read before it if the input is read on demand.
+   */
+  final void commit() {
+    if (at <= committedAt) return;
+    committedAt = at;
+    if (currentErrorAt < at) setErrorState(at, getIndex(), ErrorType.NONE);
+    if (memoTable != null) memoTable.forgetBefore(at);
+    if (source instanceof ReadableCharSequence) {
+      int index = getIndex();
+      locator.forgetBefore(index);
+      ((ReadableCharSequence) source).release(index);
+    }
+    forgetBefore(at);
+  }
+
+  /** Called upon {@link #commit} to drop the input before {@code position} that's no longer needed. */
+  void forgetBefore(int position) {}
+
+  /** Whether parsing has {@link #commit committed} past {@code position}, and hence can't backtrack to it. */
+  final boolean committedPast(int position) {
+    return committedAt > position;
+  }
+
+  /** Returns the table of {@link Parser#memoize memoized} results, created upon first use. */
+  final MemoTable memoTable() {
+    if (memoTable == null) {
+      memoTable = new MemoTable();
+    }
+    return memoTable;
+  }
   
+  /** Returns the table of interned words, created upon first use. It's cleared upon each {@link #reset}. */
+  final SymbolTable symbolTable() {
+    if (symbolTable == null) {
+      symbolTable = new SymbolTable();
+    }
+    return symbolTable;
+  }
+  
+  /**
+   * The farthest position where an error was raised, which is at least as far as the input was looked at, save
+   * for a few characters of lookahead that may not raise errors.
+   */
+  final int errorAt() {
+    return currentErrorAt;
+  }
+
+  /** Forgets the {@link Parser#memoize memoized} results, if any. */
+  final void clearMemoTable() {
+    if (memoTable != null) memoTable.clear();
+  }
+
+  /** Uses {@code table} for the {@link Parser#memoize memoized} results, as kept by {@link ParseSession}. */
+  final void useMemoTable(MemoTable table) {
+    this.memoTable = table;
+  }
+
   /** The physical index of the current most relevant error, {@code 0} if none. */
   final int errorIndex() {
     return currentErrorIndex;
@@ -275,6 +431,14 @@ abstract class ParseContext {
   @Private final void raise(ErrorType type, Object subject) {
     if (errorSuppressed) return;
     if (at < currentErrorAt) return;
+    if (errorsDeferred) {
+      if (at > currentErrorAt) {
+        currentErrorAt = at;
+        currentErrorIndex = getIndex();
+        errorGeneration++;
+      }
+      return;
+    }
     if (overrideErrorType != ErrorType.NONE) type = overrideErrorType;
     if (at > currentErrorAt) {
       setErrorState(at, getIndex(), type);
@@ -297,6 +461,76 @@ abstract class ParseContext {
     }
   }
   
+  /** Whether errors are currently recorded as raised, that is, neither suppressed nor overridden. */
+  final boolean recordsErrors() {
+    return !errorSuppressed && overrideErrorType == ErrorType.NONE;
+  }
+
+  /** Identifies the current error state, together with {@link #errorCount}. */
+  final int errorGeneration() {
+    return errorGeneration;
+  }
+
+  /** The number of errors merged into the current error state. */
+  final int errorCount() {
+    return errors.size();
+  }
+
+  /**
+   * Returns the errors recorded since the error state was identified by {@code generation} with {@code count}
+   * errors, or {@code null} if none was recorded since. Always {@code null} while errors are {@link #deferErrors
+   * deferred}: only the farthest error position is kept then, which never moves back, so by the time a memoized
+   * result is reused the error position is already at least as far as it was when the result was memoized.
+   */
+  final ErrorSnapshot errorsSince(int generation, int count) {
+    if (errorsDeferred) return null;
+    if (generation == errorGeneration) {
+      if (count == errors.size()) return null;
+      return new ErrorSnapshot(currentErrorType, currentErrorAt, currentErrorIndex,
+          errors.subList(count, errors.size()).toArray(), encountered);
+    }
+    return new ErrorSnapshot(
+        currentErrorType, currentErrorAt, currentErrorIndex, errors.toArray(), encountered);
+  }
+
+  /** Returns the errors from the {@code from}-th to the {@code to}-th merged into the current error state. */
+  final ErrorSnapshot errorsBetween(int from, int to) {
+    return new ErrorSnapshot(currentErrorType, currentErrorAt, currentErrorIndex,
+        errors.subList(from, to).toArray(), encountered);
+  }
+
+  /** Whether the current error state merges the errors raised where it is. */
+  final boolean mergesErrors() {
+    return currentErrorType.mergeable;
+  }
+
+  /**
+   * Forgets the errors recorded since the error state was identified by {@code generation} with {@code count}
+   * errors, so that raising them again keeps them in order. If the error state was reset since, only the errors
+   * are forgotten but not where they were raised.
+   */
+  final void forgetErrorsSince(int generation, int count) {
+    if (generation == errorGeneration) {
+      errors.subList(count, errors.size()).clear();
+    } else {
+      errors.clear();
+    }
+  }
+
+  /** Records the errors in {@code snapshot} as if they were raised again where they were first raised. */
+  final void replayErrors(ErrorSnapshot snapshot) {
+    if (errorSuppressed) return;
+    if (snapshot.at < currentErrorAt) return;
+    ErrorType type = overrideErrorType == ErrorType.NONE ? snapshot.type : overrideErrorType;
+    if (snapshot.at > currentErrorAt || type.ordinal() > currentErrorType.ordinal()) {
+      setErrorState(snapshot.at, snapshot.index, type);
+      encountered = snapshot.encountered;
+    } else if (type.ordinal() < currentErrorType.ordinal() || !type.mergeable) {
+      return;
+    }
+    Collections.addAll(errors, snapshot.subjects);
+  }
+  
   final void fail(String message) {
     raise(ErrorType.FAILURE, message);
   }
@@ -431,20 +665,46 @@ abstract class ParseContext {
     this.currentErrorNode = trace.getCurrentNode();
     this.encountered = null;
     this.errors.clear();
+    this.errorGeneration++;
   }
 
   private void copyErrorFrom(ParseContext that) {
     int errorIndex = that.errorIndex();
     setErrorState(errorIndex, errorIndex, that.currentErrorType, that.errors);
-    if (!that.isEof()) {
+    if (!that.isEof() && !errorsDeferred) {
       this.encountered = that.getEncountered();
     }
     currentErrorNode = that.currentErrorNode;
   }
 
+  /** The error state recorded while running a parser, to be replayed when its result is reused. */
+  static final class ErrorSnapshot {
+    final ErrorType type;
+    final int at;
+    final int index;
+    final Object[] subjects;
+    final String encountered;
+
+    ErrorSnapshot(ErrorType type, int at, int index, Object[] subjects, String encountered) {
+      this.type = type;
+      this.at = at;
+      this.index = index;
+      this.subjects = subjects;
+      this.encountered = encountered;
+    }
+
+    /** Returns the same errors raised {@code delta} characters later in the input. */
+    ErrorSnapshot moveBy(int delta) {
+      return new ErrorSnapshot(type, at + delta, index + delta, subjects, encountered);
+    }
+  }
+
   /** Reads the characters as input. Only applicable to character level parsers. */
   abstract CharSequence characters();
 
+  /** Where the {@link #characters} to scan end, which may be before the end of the source. */
+  abstract int charactersEnd();
+
   @Override public String toString() {
     return source.subSequence(getIndex(), source.length()).toString();
   }
@@ -0,0 +1,95 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec;
+
+import org.jparsec.internal.util.Checks;
+
+/**
+ * Parses a document again and again as it's edited, reusing the results of the {@link Parser#memoize memoized}
+ * parsers that didn't look at the edited text. For example: <pre>   {@code
+ *   Parser<Declaration> declaration = ...memoizeRelocatable();
+ *   ParseSession<List<Declaration>> session = declaration.many().session(document, 16);
+ *   List<Declaration> declarations = session.parse();
+ *   ...
+ *   declarations = session.reparse(offset, removedLength, insertedText);
+ * }</pre>
+ * Only the declarations around the edit are parsed again, while those before and after it are reused, so that
+ * reparsing takes time proportional to the number of declarations and the size of the edit, rather than the size
+ * of the document. The results after the edit are only reused if {@link Parser#memoizeRelocatable relocatable}, as
+ * they are then moved by the change in length with any source positions they embed left stale. The results of
+ * {@link Parser#memoize} after the edit are parsed again. Memoization is on the character level, so parsers nested
+ * by {@link Parser#from} parse all tokens again.
+ *
+ * <p>A session {@link Parser#newSession started} for a thread can also parse one small input after another with
+ * {@link #parse(CharSequence)}, reusing the parser state, the error list and the line break index rather than
+ * allocating them for every input.
+ *
+ * <p>Not thread-safe.
+ *
+ * @since 3.2
+ * @author Ben Yu
+ */
+public final class ParseSession<T> {
+  private final Parser<T> parser;
+  private final int lookahead;
+  private final StringBuilder source;
+  private final MemoTable memoTable = new MemoTable();
+  private final ScannerState state;
+
+  ParseSession(Parser<T> parser, CharSequence source, int lookahead) {
+    this.parser = parser.followedBy(Parsers.EOF);
+    this.source = new StringBuilder(source);
+    Checks.checkArgument(lookahead > 0, "lookahead must be positive: %s", lookahead);
+    this.lookahead = lookahead;
+    this.state = new ScannerState(this.source);
+    state.useMemoTable(memoTable);
+  }
+
+  /** Parses the current document. */
+  public T parse() {
+    state.reset();
+    return state.run(parser);
+  }
+
+  /** Parses {@code document} as the new document, with nothing reused but the buffers of the previous parses. */
+  public T parse(CharSequence document) {
+    source.setLength(0);
+    source.append(document);
+    memoTable.clear();
+    return parse();
+  }
+
+  /**
+   * Replaces the {@code removedLength} characters at {@code offset} in the document with {@code insertedText}, and
+   * parses it again.
+   */
+  public T reparse(int offset, int removedLength, CharSequence insertedText) {
+    Checks.checkArgument(offset >= 0 && removedLength >= 0 && offset + removedLength <= source.length(),
+        "[%s, %s) is out of the document of length %s", offset, offset + removedLength, source.length());
+    source.replace(offset, offset + removedLength, insertedText.toString());
+    memoTable.relocate(offset, removedLength, insertedText.length(), lookahead);
+    return parse();
+  }
+
+  /** Returns the current document. */
+  public String source() {
+    return source.toString();
+  }
+
+  @Override public String toString() {
+    return parser.toString();
+  }
+}
@@ -16,17 +16,27 @@
 package org.jparsec;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.CharBuffer;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.jparsec.error.ParserException;
 import org.jparsec.internal.annotations.Private;
 import org.jparsec.internal.util.Checks;
+import org.jparsec.pattern.Pattern;
 
 /**
  * Defines grammar and encapsulates parsing logic. A {@link Parser} takes as input a
@@ -79,8 +89,9 @@ public abstract class Parser<T> {
    *       .build(literal.or(parenthesized)));
    *   return ref.get();
    * }</pre>
-   * Note that a left recursive grammar will result in {@code StackOverflowError}.
-   * Use appropriate parser built-in parser combinators to avoid left-recursion.
+   * Note that a left recursive grammar will result in {@code StackOverflowError}, unless the reference is created
+   * by {@link Parser#newLeftRecursiveReference}.
+   * Otherwise, use appropriate parser built-in parser combinators to avoid left-recursion.
    * For instance, many left recursive grammar rules can be thought as logically equivalent to
    * postfix operator rules. In such case, either {@link OperatorTable} or {@link Parser#postfix}
    * can be used to work around left recursion.
@@ -111,20 +122,23 @@ public abstract class Parser<T> {
    */
   @SuppressWarnings("serial")
   public static final class Reference<T> extends AtomicReference<Parser<T>> {
-    private final Parser<T> lazy = new Parser<T>() {
-      @Override boolean apply(ParseContext ctxt) {
-        return deref().apply(ctxt);
-      }
-      private Parser<T> deref() {
-        Parser<T> p = get();
-        Checks.checkNotNullState(p,
-            "Uninitialized lazy parser reference. Did you forget to call set() on the reference?");
-        return p;
-      }
-      @Override public String toString() {
-        return "lazy";
-      }
-    };
+    private final Parser<T> lazy;
+
+    /** Creates a reference that doesn't support left recursion. Same as {@link Parser#newReference}. */
+    public Reference() {
+      this(false);
+    }
+
+    Reference(boolean leftRecursive) {
+      this.lazy = leftRecursive ? new LeftRecursiveParser<T>(this) : new Parser<T>() {
+        @Override boolean apply(ParseContext ctxt) {
+          return deref().apply(ctxt);
+        }
+        @Override public String toString() {
+          return "lazy";
+        }
+      };
+    }
 
     /**
      * A {@link Parser} that delegates to the parser object referenced by {@code this} during parsing time.
@@ -132,6 +146,13 @@ public abstract class Parser<T> {
     public Parser<T> lazy() {
       return lazy;
     }
+
+    Parser<T> deref() {
+      Parser<T> p = get();
+      Checks.checkNotNullState(p,
+          "Uninitialized lazy parser reference. Did you forget to call set() on the reference?");
+      return p;
+    }
   }
 
   Parser() {}
@@ -144,6 +165,36 @@ public abstract class Parser<T> {
     return new Reference<T>();
   }
 
+  /**
+   * Creates a new instance of {@link Reference} whose {@link Reference#lazy lazy} parser supports left recursion.
+   * For example: <pre>   {@code
+   *   Parser.Reference<Expr> ref = Parser.newLeftRecursiveReference();
+   *   ref.set(Parsers.or(
+   *       Parsers.sequence(ref.lazy(), terms.token("."), identifier, FieldAccess::new),
+   *       atom));
+   *   return ref.get();
+   * }</pre>
+   * parses {@code "a.b.c"} as {@code ((a.b).c)}, in linear time and without building intermediate lists.
+   *
+   * <p>At each input position, the left recursive call first fails so that the non left recursive alternatives
+   * provide a seed match. The referenced parser is then re-applied with the latest match standing in for the left
+   * recursive call, for as long as the match keeps growing (A. Warth et al., "Packrat Parsers Can Support Left
+   * Recursion"). Matches are {@link #memoize memoized} by position, so the referenced parser should return the same
+   * result whenever applied at the same position.
+   *
+   * <p>Only one reference per left recursive cycle may be created by this method, and the cycle must not go through
+   * a {@link #memoize memoized} parser. Such a parser, or another left recursive reference, memoizes what it matched
+   * on top of the shorter match while the seed is grown, and replays that instead of re-applying, so indirect left
+   * recursion through them silently stops growing. Plain {@link #newReference references} in the cycle are fine.
+   * Nor may the referenced parser {@link #commit} past where it's applied, as growing the match re-applies it from
+   * there; it fails if it does.
+   *
+   * @since 3.2
+   */
+  public static <T> Reference<T> newLeftRecursiveReference() {
+    return new Reference<T>(true);
+  }
+
   /**
    * A {@link Parser} that executes {@code this}, and returns {@code value} if succeeds.
    */
@@ -288,13 +339,56 @@ public abstract class Parser<T> {
    * A {@link Parser} that runs {@code this} parser and transforms the return value using {@code map}.
    */
   public final <R> Parser<R> map(final Function<? super T, ? extends R> map) {
-    return new Parser<R>() {
-      @Override boolean apply(final ParseContext ctxt) {
-        final boolean r = Parser.this.apply(ctxt);
-        if (r) {
-          ctxt.result = map.apply(Parser.this.getReturn(ctxt));
-        }
-        return r;
+    return new MapParser<T, R>(this, map);
+  }
+
+  /**
+   * An {@link IntParser} that runs {@code this} parser and transforms the return value using {@code map}.
+   *
+   * @since 3.2
+   */
+  public final IntParser mapToInt(ToIntFunction<? super T> map) {
+    return new IntParser() {
+      @Override boolean applyAsInt(ParseContext ctxt) {
+        if (!Parser.this.apply(ctxt)) return false;
+        ctxt.intResult = map.applyAsInt(Parser.this.getReturn(ctxt));
+        return true;
+      }
+      @Override public String toString() {
+        return map.toString();
+      }
+    };
+  }
+
+  /**
+   * A {@link LongParser} that runs {@code this} parser and transforms the return value using {@code map}.
+   *
+   * @since 3.2
+   */
+  public final LongParser mapToLong(ToLongFunction<? super T> map) {
+    return new LongParser() {
+      @Override boolean applyAsLong(ParseContext ctxt) {
+        if (!Parser.this.apply(ctxt)) return false;
+        ctxt.longResult = map.applyAsLong(Parser.this.getReturn(ctxt));
+        return true;
+      }
+      @Override public String toString() {
+        return map.toString();
+      }
+    };
+  }
+
+  /**
+   * A {@link DoubleParser} that runs {@code this} parser and transforms the return value using {@code map}.
+   *
+   * @since 3.2
+   */
+  public final DoubleParser mapToDouble(ToDoubleFunction<? super T> map) {
+    return new DoubleParser() {
+      @Override boolean applyAsDouble(ParseContext ctxt) {
+        if (!Parser.this.apply(ctxt)) return false;
+        ctxt.doubleResult = map.applyAsDouble(Parser.this.getReturn(ctxt));
+        return true;
       }
       @Override public String toString() {
         return map.toString();
@@ -327,7 +421,7 @@ public abstract class Parser<T> {
         final int at = ctxt.at;
         final int step = ctxt.step;
         if (Parser.this.apply(ctxt)) return true;
-        if (ctxt.errorIndex() > at) return false;
+        if (ctxt.errorIndex() > at || ctxt.committedPast(at)) return false;
         ctxt.set(step, at, result);
         return fallback.apply(ctxt);
       }
@@ -417,7 +511,7 @@ public abstract class Parser<T> {
         int step = ctxt.step;
         boolean r = Parser.this.apply(ctxt);
         if (r) ctxt.step = step + 1;
-        else ctxt.setAt(step, at);
+        else if (!ctxt.committedPast(at)) ctxt.setAt(step, at);
         return r;
       }
       @Override public String toString() {
@@ -426,6 +520,88 @@ public abstract class Parser<T> {
     };
   }
 
+  /**
+   * A {@link Parser} that remembers the outcome of {@code this} at each input position, so that {@code this} runs
+   * at most once per position no matter how many alternatives try it (packrat parsing). Useful for a rule shared by
+   * the prefixes of many alternatives, which would otherwise be re-parsed upon every backtrack: <pre>   {@code
+   *   Parser<QualifiedName> name = qualifiedName.memoize();
+   *   Parsers.or(
+   *       Parsers.sequence(name, terms.token("("), args, ...),
+   *       Parsers.sequence(name, terms.token("["), index, ...),
+   *       name);
+   * }</pre>
+   * The remembered result object is shared by every reuse, so {@code this} must return the same result whenever
+   * applied at the same position. Memoization is bypassed in {@link Mode#DEBUG} mode to keep the parse tree intact.
+   *
+   * <p>Upon {@link ParseSession#reparse}, the results after the edit are dropped, because they may embed positions in
+   * the old document. Use {@link #memoizeRelocatable} to reuse them.
+   *
+   * @since 3.2
+   */
+  public final Parser<T> memoize() {
+    return new MemoParser<T>(this, false);
+  }
+
+  /**
+   * Same as {@link #memoize}, except that {@link ParseSession#reparse} also reuses the results after the edit, moved
+   * by the change in length. The results mustn't embed positions in the source, such as a {@link Token}, a
+   * {@link WithSource} or a {@link SourceLocation}, since those would be stale after the move.
+   *
+   * @since 3.2
+   */
+  public final Parser<T> memoizeRelocatable() {
+    return new MemoParser<T>(this, true);
+  }
+
+  /**
+   * A {@link Parser} that runs {@code this} and, if it succeeds, commits to the input parsed so far: enclosing
+   * alternatives ({@link #or}, {@link #otherwise}, {@link Parsers#longer} etc.) and repetitions ({@link #many},
+   * {@link #times} etc.) fail instead of backtracking to before where {@code this} ends. For example: <pre>   {@code
+   *   Parser<Statement> statement = Parsers.or(
+   *       Parsers.sequence(terms.token("select").commit(), selectBody, ...),
+   *       Parsers.sequence(terms.token("insert").commit(), insertBody, ...));
+   *   Parser<List<Statement>> script = statement.many();
+   * }</pre>
+   * Once {@code select} is matched, a syntax error in {@code selectBody} is reported right there instead of trying
+   * {@code insert} or ending the script before it.
+   *
+   * <p>The errors and {@link #memoize memoized} results before the commit point are dropped, and so is the input read
+   * by {@link #parse(Readable, int)}, which then takes memory bounded by the distance between commit points rather
+   * than by the input size. For that reason, it mustn't be used inside parsers that go back to before where it ends
+   * after success: {@link #source}, {@link #peek}, {@link #not}, {@link #notFollowedBy} and {@link #until} are
+   * unaware of commit points.
+   *
+   * @since 3.2
+   */
+  public final Parser<T> commit() {
+    return new CommitParser<T>(this);
+  }
+
+  /**
+   * Returns an equivalent {@link Parser} that runs faster, by rewriting the graph of combinators under {@code this}:
+   * <ul>
+   * <li>Nested {@link Parsers#or or} and {@link Parsers#sequence sequence} are flattened.
+   * <li>Chained {@link #map} calls are fused, and maps whose results are discarded (as by {@link #retn}) are skipped.
+   * <li>Repetitions of scanners composed of {@link Scanners#isChar}, {@link Scanners#string} and patterns (such as
+   *     {@link Scanners#JAVA_DELIMITER}) are compiled into a single {@link org.jparsec.pattern.Pattern} loop.
+   * <li>Alternatives of {@link Scanners#string} are looked up together by the first character.
+   * <li>{@link Parsers#or} only tries the alternatives that can match the current character, as far as known from
+   *     the {@link Scanners#isChar} or {@link Scanners#string} scanners they start with. Likewise at token level,
+   *     the alternatives starting with {@link Terminals#token} or {@link Terminals#fragment} are looked up by the
+   *     value of the current token.
+   * <li>{@link #label} of a parser that never fails is skipped outside of {@link Mode#DEBUG} mode.
+   * </ul>
+   * Call it once upon the fully built grammar and reuse the result. Functions passed to {@link #map} aren't called if
+   * their return values are discarded, so they shouldn't have side effects. Error messages may list fewer expected
+   * alternatives. Parsers behind a {@link Reference} aren't rewritten: call {@code optimize()} on the parser passed to
+   * {@link Reference#set} instead.
+   *
+   * @since 3.2
+   */
+  public final Parser<T> optimize() {
+    return new ParserOptimizer().optimize(this);
+  }
+
   /**
    * A {@link Parser} that returns {@code true} if {@code this} succeeds, {@code false} otherwise.
    */
@@ -462,6 +638,7 @@ public abstract class Parser<T> {
           Parser<? extends R> parser = consequence.apply(Parser.this.getReturn(ctxt));
           return parser.apply(ctxt);
         }
+        if (ctxt.committedPast(at)) return false;
         ctxt.set(step, at, ret);
         return alternative.apply(ctxt);
       }
@@ -475,18 +652,8 @@ public abstract class Parser<T> {
    * A {@link Parser} that reports reports an error about {@code name} expected, if {@code this} fails with no partial
    * match.
    */
-  public Parser<T> label(final String name) {
-    return new Parser<T>() {
-      @Override public Parser<T> label(String overrideName) {
-        return Parser.this.label(overrideName);
-      }
-      @Override boolean apply(ParseContext ctxt) {
-        return ctxt.applyNewNode(Parser.this, name);
-      }
-      @Override public String toString() {
-        return name;
-      }
-    };
+  public Parser<T> label(String name) {
+    return new LabelParser<T>(this, name);
   }
 
   /**
@@ -712,19 +879,7 @@ public abstract class Parser<T> {
    * A {@link Parser} that returns the matched string in the original source.
    */
   public final Parser<String> source() {
-    return new Parser<String>() {
-      @Override boolean apply(ParseContext ctxt) {
-        int begin = ctxt.getIndex();
-        if (!Parser.this.apply(ctxt)) {
-          return false;
-        }
-        ctxt.result = ctxt.source.subSequence(begin, ctxt.getIndex()).toString();
-        return true;
-      }
-      @Override public String toString() {
-        return "source";
-      }
-    };
+    return new SourceParser(this);
   }
 
   /**
@@ -791,7 +946,21 @@ public abstract class Parser<T> {
    * <p> {@code this} must be a token level parser.
    */
   public final Parser<T> from(Parser<?> tokenizer, Parser<Void> delim) {
-    return from(tokenizer.lexer(delim));
+    return Parsers.nested(new LexerParser(tokenizer, delim), followedBy(Parsers.EOF));
+  }
+
+  /**
+   * Same as {@link #from(Parser, Parser)}, except the tokens aren't all lexed up front. Instead, the next token is
+   * lexed when {@code this} gets to it, and the tokens before a {@link #commit} point are dropped. A syntax error is
+   * thus reported without lexing the rest of the input, and a long input that {@code this} commits through doesn't
+   * need all its tokens in memory.
+   *
+   * <p> {@code this} must be a token level parser.
+   *
+   * @since 3.2
+   */
+  public final Parser<T> fromOnDemand(Parser<?> tokenizer, Parser<Void> delim) {
+    return Parsers.nestedOnDemand(new LexerParser(tokenizer, delim), followedBy(Parsers.EOF));
   }
 
   /**
@@ -837,7 +1006,116 @@ public abstract class Parser<T> {
    * Parses source read from {@code readable}.
    */
   public final T parse(Readable readable) throws IOException {
-    return parse(read(readable));
+    return parse(readable, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Parses source read from {@code readable}, reading no further than {@code lookahead} characters
+   * ahead of the current position, instead of reading the entire source into memory up front. The
+   * characters before a {@link #commit} point are released.
+   *
+   * <p>A scanner that needs to look further ahead than {@code lookahead} characters (a
+   * {@link Scanners#pattern pattern} matching a very long token, for example) will see the end of
+   * input where {@code lookahead} runs out.
+   *
+   * @since 3.2
+   */
+  public final T parse(Readable readable, int lookahead) throws IOException {
+    Checks.checkArgument(lookahead > 0, "lookahead must be positive: %s", lookahead);
+    try {
+      return new ScannerState(null, new ReadableCharSequence(readable, lookahead))
+          .run(followedBy(Parsers.EOF));
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    } catch (ParserException e) {
+      if (e.getCause() instanceof UncheckedIOException) {
+        throw ((UncheckedIOException) e.getCause()).getCause();
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Lazily parses the records separated by {@code separator} in the source read from {@code readable}, as in
+   * {@code parseStream(readable, separator, 65536)}.
+   *
+   * @since 3.2
+   */
+  public final Stream<T> parseStream(Readable readable, Parser<?> separator) {
+    return parseStream(readable, separator, 65536);
+  }
+
+  /**
+   * Lazily parses the records separated by {@code separator} in the source read from {@code readable}, such as
+   * newline delimited log entries or {@code ;} separated SQL statements. A trailing separator is allowed. Each
+   * record is parsed as it's consumed from the returned stream, reading no further than {@code lookahead}
+   * characters ahead (see {@link #parse(Readable, int)}), and {@link #commit committed} to after it's parsed. So
+   * memory is bounded by the size of a record rather than the input, and {@link ParserException} reports the line
+   * and column numbers in the entire input.
+   *
+   * <p>{@link java.io.IOException} thrown by {@code readable} is rethrown as
+   * {@link java.io.UncheckedIOException}. Once a record fails to parse or read, the stream ends.
+   *
+   * @since 3.2
+   */
+  public final Stream<T> parseStream(Readable readable, Parser<?> separator, int lookahead) {
+    Checks.checkArgument(lookahead > 0, "lookahead must be positive: %s", lookahead);
+    ScannerState state = new ScannerState(null, new ReadableCharSequence(readable, lookahead));
+    return StreamSupport.stream(
+        Spliterators.spliteratorUnknownSize(
+            new RecordIterator<T>(this, separator, state), Spliterator.ORDERED),
+        false);
+  }
+
+  /**
+   * Parses the records in {@code source} in parallel on the {@link ForkJoinPool#commonPool common pool}, as in
+   * {@code parseParallel(source, boundary, ForkJoinPool.commonPool())}.
+   *
+   * @since 3.2
+   */
+  public final List<T> parseParallel(CharSequence source, Pattern boundary) {
+    return parseParallel(source, boundary, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Parses {@code source} as {@code many()} records on {@code pool}, and returns the records in input order. For
+   * example, to parse a log file line by line: <pre>   {@code
+   *   List<Entry> entries = entry.parseParallel(log, Patterns.isChar('\n'), pool);
+   * }</pre>
+   * {@code source} is split into chunks right after matches of {@code boundary}, which are each parsed on their own.
+   * So {@code boundary} must only match where a record ends, and no record may depend on what's parsed before it.
+   * The line and column numbers reported by {@link ParserException} are in the entire {@code source}; if several
+   * chunks fail, the first one in the input is reported.
+   *
+   * @since 3.2
+   */
+  public final List<T> parseParallel(CharSequence source, Pattern boundary, ForkJoinPool pool) {
+    return ParallelParsing.parse(this, source, boundary, pool);
+  }
+
+  /**
+   * Starts a {@link ParseSession} to parse {@code source} and then reparse it upon each edit. {@code lookahead} is
+   * how far a parser may look past where it ends or reports an error (for example, {@code Scanners.string("select")}
+   * looks 6 characters ahead of where it reports a mismatch), so that its memoized result isn't reused after an edit
+   * within that range.
+   *
+   * @since 3.2
+   */
+  public final ParseSession<T> session(CharSequence source, int lookahead) {
+    return new ParseSession<T>(this, source, lookahead);
+  }
+
+  /**
+   * Starts a {@link ParseSession} to {@link ParseSession#parse(CharSequence) parse} one input after another,
+   * reusing the state allocated for the previous inputs. For example: <pre>   {@code
+   *   ThreadLocal<ParseSession<Filter>> sessions = ThreadLocal.withInitial(filter::newSession);
+   *   Filter parsed = sessions.get().parse(text);
+   * }</pre>
+   *
+   * @since 3.2
+   */
+  public final ParseSession<T> newSession() {
+    return new ParseSession<T>(this, "", Integer.MAX_VALUE);
   }
 
   /**
@@ -895,6 +1173,27 @@ public abstract class Parser<T> {
         state.enableTrace("root");
         return state.run(parser.followedBy(Parsers.EOF));
       }
+    },
+
+    /**
+     * Like {@link #PRODUCTION}, but doesn't keep track of what is expected where until parsing fails, at which
+     * point {@code source} is parsed again in {@link #PRODUCTION} mode to report the error. Faster when most inputs
+     * are expected to parse successfully. Functions passed to {@link #map} etc. are called again upon failure.
+     *
+     * <p>Only {@link Parser#parse(CharSequence, Mode)} supports this mode. The other entry points always keep track
+     * of the errors: {@link Parser#parse(Readable)} and {@link Parser#parseStream} can't read the input twice, and
+     * {@link ParseSession} reuses the errors memoized along with the results.
+     *
+     * @since 3.2
+     */
+    OPTIMISTIC {
+      @Override <T> T run(Parser<T> parser, CharSequence source) {
+        Parser<T> parserAndEof = parser.followedBy(Parsers.EOF);
+        ScannerState state = new ScannerState(source);
+        state.deferErrors();
+        if (state.applyWithExceptionWrapped(parserAndEof)) return parserAndEof.getReturn(state);
+        return new ScannerState(source).run(parserAndEof);
+      }
     }
     ;
     abstract <T> T run(Parser<T> parser, CharSequence source);
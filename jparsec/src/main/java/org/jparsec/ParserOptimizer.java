@@ -0,0 +1,491 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.jparsec.pattern.CharPredicate;
+import org.jparsec.pattern.CharPredicates;
+import org.jparsec.pattern.Pattern;
+import org.jparsec.pattern.Patterns;
+
+/**
+ * Rewrites a {@link Parser} graph into an equivalent one that runs faster. See {@link Parser#optimize}.
+ *
+ * <p>Only the combinators that expose their structure (or, sequence, map, label, repetitions, memoize
+ * and the basic scanners) are rewritten. Any other parser is kept as is, together with what it wraps.
+ *
+ * @author Ben Yu
+ */
+final class ParserOptimizer {
+  private final Map<Parser<?>, Parser<?>> optimized = new IdentityHashMap<Parser<?>, Parser<?>>();
+
+  /** Returns the optimized equivalent of {@code parser}, which is {@code parser} itself if nothing changes. */
+  <T> Parser<T> optimize(Parser<T> parser) {
+    Parser<?> result = optimized.get(parser);
+    if (result == null) {
+      result = rewrite(parser);
+      optimized.put(parser, result);
+    }
+    return result.cast();
+  }
+
+  private Parser<?> rewrite(Parser<?> parser) {
+    if (parser instanceof OrParser) return or((OrParser<?>) parser);
+    if (parser instanceof SequenceParser) return sequence((SequenceParser) parser);
+    if (parser instanceof MapParser) return map((MapParser<?, ?>) parser);
+    if (parser instanceof LabelParser) return label((LabelParser<?>) parser);
+    if (parser instanceof SkipAtLeastParser) return skipAtLeast((SkipAtLeastParser) parser);
+    if (parser instanceof RepeatAtLeastParser) return atLeast((RepeatAtLeastParser<?>) parser);
+    if (parser instanceof MemoParser) return memoize((MemoParser<?>) parser);
+    if (parser instanceof CommitParser) return commit((CommitParser<?>) parser);
+    return parser;
+  }
+
+  private Parser<?> or(OrParser<?> parser) {
+    List<Parser<?>> alternatives = new ArrayList<Parser<?>>();
+    for (Parser<?> alternative : parser.alternatives) {
+      Parser<?> p = optimize(alternative);
+      if (p instanceof OrParser) {
+        Collections.addAll(alternatives, ((OrParser<?>) p).alternatives);
+      } else {
+        alternatives.add(p);
+      }
+      // The rest are unreachable.
+      if (neverFails(p)) break;
+    }
+    alternatives = foldLiterals(alternatives);
+    if (alternatives.size() == 1) return alternatives.get(0);
+    int[][] dispatch = dispatch(alternatives);
+    if (dispatch != null) return new OrParser<Object>(toArray(alternatives), dispatch);
+    TokenDispatch tokenDispatch = tokenDispatch(alternatives);
+    if (tokenDispatch != null) return new OrParser<Object>(toArray(alternatives), tokenDispatch);
+    if (sameParsers(alternatives, parser.alternatives)) return parser;
+    return new OrParser<Object>(toArray(alternatives));
+  }
+
+  /**
+   * Returns the indices of {@code alternatives} that can match each ASCII character (and EOF at
+   * index 128), or null if no alternative can be ruled out by the current character.
+   */
+  private static int[][] dispatch(List<Parser<?>> alternatives) {
+    CharPredicate[] firsts = new CharPredicate[alternatives.size()];
+    boolean known = false;
+    for (int i = 0; i < firsts.length; i++) {
+      firsts[i] = firstChars(alternatives.get(i));
+      known |= firsts[i] != null;
+    }
+    if (!known) return null;
+    int[][] dispatch = new int[129][];
+    int[] indices = new int[firsts.length];
+    for (int c = 0; c <= 128; c++) {
+      int n = 0;
+      for (int i = 0; i < firsts.length; i++) {
+        if (firsts[i] == null || (c < 128 && firsts[i].isChar((char) c))) {
+          indices[n++] = i;
+        }
+      }
+      dispatch[c] = Arrays.copyOf(indices, n);
+    }
+    return dispatch;
+  }
+
+  /**
+   * Returns the predicate that the current character has to satisfy for {@code parser} to
+   * succeed (so {@code parser} fails at EOF too), or null if unknown. Predicates that may depend
+   * on state are unknown, as {@link #dispatch} precomputes their answers.
+   */
+  private static CharPredicate firstChars(Parser<?> parser) {
+    if (parser instanceof IsCharScanner) return statelessOrNull(((IsCharScanner) parser).predicate);
+    if (parser instanceof PatternScanner) {
+      String literal = ((PatternScanner) parser).literal;
+      return isFoldable(literal) ? CharPredicates.isChar(literal.charAt(0)) : null;
+    }
+    if (parser instanceof LiteralsScanner) {
+      StringBuilder chars = new StringBuilder();
+      for (String literal : ((LiteralsScanner) parser).literals) {
+        chars.append(literal.charAt(0));
+      }
+      return CharPredicates.among(chars.toString());
+    }
+    if (parser instanceof OperatorScanner) return CharPredicates.among(((OperatorScanner) parser).firstChars());
+    if (parser instanceof SequenceParser) {
+      Parser<?>[] parsers = ((SequenceParser) parser).parsers;
+      return parsers.length == 0 ? null : firstChars(parsers[0]);
+    }
+    if (parser instanceof OrParser) {
+      Parser<?>[] alternatives = ((OrParser<?>) parser).alternatives;
+      CharPredicate[] firsts = new CharPredicate[alternatives.length];
+      for (int i = 0; i < alternatives.length; i++) {
+        firsts[i] = firstChars(alternatives[i]);
+        if (firsts[i] == null) return null;
+      }
+      return CharPredicates.or(firsts);
+    }
+    if (parser instanceof MapParser) return firstChars(((MapParser<?, ?>) parser).parser);
+    if (parser instanceof SourceParser) return firstChars(((SourceParser) parser).parser);
+    if (parser instanceof KeywordScanner) return firstChars(((KeywordScanner) parser).scanner);
+    if (parser instanceof LabelParser) return firstChars(((LabelParser<?>) parser).parser);
+    if (parser instanceof MemoParser) return firstChars(((MemoParser<?>) parser).parser);
+    if (parser instanceof CommitParser) return firstChars(((CommitParser<?>) parser).parser);
+    if (parser instanceof RepeatCharScanner) {
+      RepeatCharScanner repeat = (RepeatCharScanner) parser;
+      return repeat.min > 0 ? statelessOrNull(repeat.predicate) : null;
+    }
+    if (parser instanceof RepeatPatternScanner) {
+      RepeatPatternScanner repeat = (RepeatPatternScanner) parser;
+      return repeat.min > 0 ? firstChars(repeat.scanner) : null;
+    }
+    if (parser instanceof SkipAtLeastParser) {
+      SkipAtLeastParser repeat = (SkipAtLeastParser) parser;
+      return repeat.min > 0 ? firstChars(repeat.parser) : null;
+    }
+    if (parser instanceof RepeatAtLeastParser) {
+      RepeatAtLeastParser<?> repeat = (RepeatAtLeastParser<?>) parser;
+      return repeat.min > 0 ? firstChars(repeat.parser) : null;
+    }
+    return null;
+  }
+
+  private static CharPredicate statelessOrNull(CharPredicate predicate) {
+    return CharPredicates.isStateless(predicate) ? predicate : null;
+  }
+
+  /**
+   * Returns the lookup of {@code alternatives} by the current token, or null if no alternative can be
+   * ruled out by the current token.
+   */
+  @SuppressWarnings("unchecked")
+  private static TokenDispatch tokenDispatch(List<Parser<?>> alternatives) {
+    List<Object>[] values = (List<Object>[]) new List<?>[alternatives.size()];
+    List<Object>[] tags = (List<Object>[]) new List<?>[alternatives.size()];
+    boolean known = false;
+    for (int i = 0; i < values.length; i++) {
+      List<Object> tokenValues = new ArrayList<Object>();
+      List<Object> fragmentTags = new ArrayList<Object>();
+      if (collectTokenKeys(alternatives.get(i), tokenValues, fragmentTags)) {
+        values[i] = tokenValues;
+        tags[i] = fragmentTags;
+        known = true;
+      }
+    }
+    return known ? new TokenDispatch(values, tags) : null;
+  }
+
+  /**
+   * Collects into {@code values} and {@code tags} the token values and the {@link Tokens.Fragment} tags,
+   * one of which the current token has to have for {@code parser} to succeed. Returns false if unknown.
+   */
+  private static boolean collectTokenKeys(Parser<?> parser, List<Object> values, List<Object> tags) {
+    if (parser instanceof TokenParser) {
+      TokenMap<?> fromToken = ((TokenParser<?>) parser).fromToken;
+      if (fromToken instanceof InternalFunctors.TokenWithSameValue) {
+        values.add(((InternalFunctors.TokenWithSameValue) fromToken).value);
+        return true;
+      }
+      if (fromToken instanceof Terminals.FragmentWithTag) {
+        Collections.addAll(tags, ((Terminals.FragmentWithTag) fromToken).tags);
+        return true;
+      }
+      return false;
+    }
+    if (parser instanceof SequenceParser) {
+      Parser<?>[] parsers = ((SequenceParser) parser).parsers;
+      return parsers.length > 0 && collectTokenKeys(parsers[0], values, tags);
+    }
+    if (parser instanceof OrParser) {
+      for (Parser<?> alternative : ((OrParser<?>) parser).alternatives) {
+        if (!collectTokenKeys(alternative, values, tags)) return false;
+      }
+      return true;
+    }
+    if (parser instanceof MapParser) return collectTokenKeys(((MapParser<?, ?>) parser).parser, values, tags);
+    if (parser instanceof LabelParser) return collectTokenKeys(((LabelParser<?>) parser).parser, values, tags);
+    if (parser instanceof MemoParser) return collectTokenKeys(((MemoParser<?>) parser).parser, values, tags);
+    if (parser instanceof CommitParser) return collectTokenKeys(((CommitParser<?>) parser).parser, values, tags);
+    if (parser instanceof SkipAtLeastParser) {
+      SkipAtLeastParser repeat = (SkipAtLeastParser) parser;
+      return repeat.min > 0 && collectTokenKeys(repeat.parser, values, tags);
+    }
+    if (parser instanceof RepeatAtLeastParser) {
+      RepeatAtLeastParser<?> repeat = (RepeatAtLeastParser<?>) parser;
+      return repeat.min > 0 && collectTokenKeys(repeat.parser, values, tags);
+    }
+    return false;
+  }
+
+  /** Folds consecutive string literal scanners in {@code alternatives} into {@link LiteralsScanner}. */
+  private static List<Parser<?>> foldLiterals(List<Parser<?>> alternatives) {
+    List<Parser<?>> result = new ArrayList<Parser<?>>(alternatives.size());
+    List<String> literals = new ArrayList<String>();
+    List<String> names = new ArrayList<String>();
+    int run = 0;
+    for (int i = 0; i <= alternatives.size(); i++) {
+      Parser<?> p = i < alternatives.size() ? alternatives.get(i) : null;
+      if (p instanceof PatternScanner && isFoldable(((PatternScanner) p).literal)) {
+        literals.add(((PatternScanner) p).literal);
+        names.add(((PatternScanner) p).name);
+        run++;
+        continue;
+      }
+      if (p instanceof LiteralsScanner) {
+        Collections.addAll(literals, ((LiteralsScanner) p).literals);
+        Collections.addAll(names, ((LiteralsScanner) p).names);
+        run++;
+        continue;
+      }
+      if (run == 1) {
+        result.add(alternatives.get(i - 1));
+      } else if (run > 1) {
+        result.add(new LiteralsScanner(
+            literals.toArray(new String[literals.size()]), names.toArray(new String[names.size()])));
+      }
+      literals.clear();
+      names.clear();
+      run = 0;
+      if (p != null) result.add(p);
+    }
+    return result;
+  }
+
+  private static boolean isFoldable(String literal) {
+    return literal != null && literal.length() > 0;
+  }
+
+  private Parser<?> sequence(SequenceParser parser) {
+    // Built backwards so that we know whether the return value of a parser is overwritten by later ones.
+    List<Parser<?>> reversed = new ArrayList<Parser<?>>();
+    boolean overwritten = false;
+    for (int i = parser.parsers.length - 1; i >= 0; i--) {
+      overwritten = prepend(optimize(parser.parsers[i]), overwritten, reversed);
+    }
+    if (reversed.size() == 1) return reversed.get(0);
+    Collections.reverse(reversed);
+    if (sameParsers(reversed, parser.parsers)) return parser;
+    return new SequenceParser(toArray(reversed));
+  }
+
+  /**
+   * Adds the already optimized {@code parser} to the front of the {@code reversed} sequence, with
+   * nested sequences flattened, and constants or maps whose return values are {@code overwritten}
+   * removed.
+   */
+  private static boolean prepend(Parser<?> parser, boolean overwritten, List<Parser<?>> reversed) {
+    if (parser instanceof SequenceParser) {
+      Parser<?>[] parsers = ((SequenceParser) parser).parsers;
+      for (int i = parsers.length - 1; i >= 0; i--) {
+        overwritten = prepend(parsers[i], overwritten, reversed);
+      }
+      return overwritten;
+    }
+    if (overwritten) {
+      if (parser instanceof ConstantParser) return true;
+      if (parser instanceof MapParser) return prepend(((MapParser<?, ?>) parser).parser, true, reversed);
+    }
+    reversed.add(parser);
+    return overwritten || setsResult(parser);
+  }
+
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  private Parser<?> map(MapParser<?, ?> parser) {
+    Parser<?> p = optimize(parser.parser);
+    if (p instanceof MapParser) {
+      MapParser<?, ?> inner = (MapParser<?, ?>) p;
+      return new MapParser(inner.parser, compose(inner.map, parser.map));
+    }
+    if (p == parser.parser) return parser;
+    return new MapParser(p, parser.map);
+  }
+
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  private static Function<Object, Object> compose(final Function first, final Function then) {
+    return new Function<Object, Object>() {
+      @Override public Object apply(Object from) {
+        return then.apply(first.apply(from));
+      }
+      @Override public String toString() {
+        return then.toString();
+      }
+    };
+  }
+
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  private Parser<?> label(LabelParser<?> parser) {
+    Parser<?> p = optimize(parser.parser);
+    boolean treeNodeOnly = neverFails(p);
+    if (p == parser.parser && treeNodeOnly == parser.treeNodeOnly) return parser;
+    return new LabelParser(p, parser.name, treeNodeOnly);
+  }
+
+  private Parser<?> skipAtLeast(SkipAtLeastParser parser) {
+    Parser<?> p = optimize(parser.parser);
+    Parser<?> repeated = repeat(p, parser.min, false);
+    if (repeated != null) return repeated;
+    if (p == parser.parser) return parser;
+    return new SkipAtLeastParser(p, parser.min);
+  }
+
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  private Parser<?> atLeast(RepeatAtLeastParser<?> parser) {
+    Parser<?> p = optimize(parser.parser);
+    if (parser.listFactory == ListFactory.arrayListFactory()) {
+      Parser<?> repeated = repeat(p, parser.min, true);
+      if (repeated != null) return repeated;
+    }
+    if (p == parser.parser) return parser;
+    return new RepeatAtLeastParser(p, parser.min, parser.listFactory);
+  }
+
+  /**
+   * Returns a scanner that repeats {@code scanner} in a single loop, or null if {@code scanner}
+   * can't be expressed as a {@link Pattern}.
+   */
+  private static Parser<?> repeat(Parser<?> scanner, int min, boolean collect) {
+    if (scanner instanceof IsCharScanner) {
+      IsCharScanner isChar = (IsCharScanner) scanner;
+      return new RepeatCharScanner(isChar.predicate, isChar.name, min, collect);
+    }
+    Pattern pattern = toPattern(scanner);
+    if (pattern == null) return null;
+    return new RepeatPatternScanner(pattern, scanner, min, collect);
+  }
+
+  /**
+   * Returns the {@link Pattern} that matches the same as {@code scanner}, or null if {@code
+   * scanner} isn't built solely from patterns, or returns values other than null.
+   */
+  private static Pattern toPattern(Parser<?> scanner) {
+    if (scanner instanceof PatternScanner) return ((PatternScanner) scanner).pattern;
+    if (scanner instanceof IsCharScanner) return Patterns.isChar(((IsCharScanner) scanner).predicate);
+    if (scanner instanceof LiteralsScanner) {
+      final LiteralsScanner literals = (LiteralsScanner) scanner;
+      return new Pattern() {
+        @Override public int match(CharSequence src, int begin, int end) {
+          return literals.match(src, begin, end);
+        }
+      };
+    }
+    if (scanner instanceof RepeatCharScanner) {
+      RepeatCharScanner repeat = (RepeatCharScanner) scanner;
+      return repeat.collect ? null : Patterns.atLeast(repeat.min, repeat.predicate);
+    }
+    if (scanner instanceof RepeatPatternScanner) {
+      RepeatPatternScanner repeat = (RepeatPatternScanner) scanner;
+      return repeat.collect ? null : repeat.pattern.atLeast(repeat.min);
+    }
+    if (scanner instanceof SequenceParser) {
+      Pattern[] patterns = toPatterns(((SequenceParser) scanner).parsers);
+      return patterns == null ? null : Patterns.sequence(patterns);
+    }
+    if (scanner instanceof OrParser) {
+      Pattern[] patterns = toPatterns(((OrParser<?>) scanner).alternatives);
+      return patterns == null ? null : Patterns.or(patterns);
+    }
+    return null;
+  }
+
+  private static Pattern[] toPatterns(Parser<?>[] scanners) {
+    // An empty sequence passes on the previous return value.
+    if (scanners.length == 0) return null;
+    Pattern[] patterns = new Pattern[scanners.length];
+    for (int i = 0; i < scanners.length; i++) {
+      patterns[i] = toPattern(scanners[i]);
+      if (patterns[i] == null) return null;
+    }
+    return patterns;
+  }
+
+  private Parser<?> memoize(MemoParser<?> parser) {
+    Parser<?> p = optimize(parser.parser);
+    if (p == parser.parser) return parser;
+    return new MemoParser<Object>(p.cast(), parser.relocatable);
+  }
+
+  private Parser<?> commit(CommitParser<?> parser) {
+    Parser<?> p = optimize(parser.parser);
+    if (p == parser.parser) return parser;
+    return new CommitParser<Object>(p.cast());
+  }
+
+  /** Whether {@code parser} is known to always succeed. */
+  private static boolean neverFails(Parser<?> parser) {
+    if (parser instanceof ConstantParser) return true;
+    if (parser instanceof MapParser) return neverFails(((MapParser<?, ?>) parser).parser);
+    if (parser instanceof LabelParser) return neverFails(((LabelParser<?>) parser).parser);
+    if (parser instanceof SequenceParser) {
+      for (Parser<?> p : ((SequenceParser) parser).parsers) {
+        if (!neverFails(p)) return false;
+      }
+      return true;
+    }
+    if (parser instanceof OrParser) {
+      for (Parser<?> p : ((OrParser<?>) parser).alternatives) {
+        if (neverFails(p)) return true;
+      }
+      return false;
+    }
+    if (parser instanceof SkipAtLeastParser) return ((SkipAtLeastParser) parser).min == 0;
+    if (parser instanceof RepeatAtLeastParser) return ((RepeatAtLeastParser<?>) parser).min == 0;
+    if (parser instanceof RepeatCharScanner) return ((RepeatCharScanner) parser).min == 0;
+    if (parser instanceof RepeatPatternScanner) return ((RepeatPatternScanner) parser).min == 0;
+    return false;
+  }
+
+  /**
+   * Whether {@code parser} is known to set the return value upon success. Others (like
+   * {@link Parsers#EOF}) pass on the return value of the previous parser in a sequence.
+   */
+  private static boolean setsResult(Parser<?> parser) {
+    if (parser instanceof LabelParser) return setsResult(((LabelParser<?>) parser).parser);
+    if (parser instanceof SequenceParser) {
+      for (Parser<?> p : ((SequenceParser) parser).parsers) {
+        if (setsResult(p)) return true;
+      }
+      return false;
+    }
+    if (parser instanceof OrParser) {
+      for (Parser<?> p : ((OrParser<?>) parser).alternatives) {
+        if (!setsResult(p)) return false;
+      }
+      return true;
+    }
+    return parser instanceof ConstantParser || parser instanceof MapParser
+        || parser instanceof PatternScanner || parser instanceof IsCharScanner
+        || parser instanceof LiteralsScanner || parser instanceof RepeatCharScanner
+        || parser instanceof RepeatPatternScanner || parser instanceof SkipAtLeastParser
+        || parser instanceof RepeatAtLeastParser;
+  }
+
+  private static boolean sameParsers(List<Parser<?>> parsers, Parser<?>[] array) {
+    if (parsers.size() != array.length) return false;
+    for (int i = 0; i < array.length; i++) {
+      if (parsers.get(i) != array[i]) return false;
+    }
+    return true;
+  }
+
+  private static Parser<Object>[] toArray(List<Parser<?>> parsers) {
+    @SuppressWarnings("unchecked")
+    Parser<Object>[] array = (Parser<Object>[]) parsers.toArray(new Parser<?>[parsers.size()]);
+    return array;
+  }
+}
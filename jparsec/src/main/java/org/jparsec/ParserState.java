@@ -27,31 +27,91 @@ final class ParserState extends ParseContext {
       + " For example: Scanners.string(foo).from(tokenizer).parse(text) will result in this error"
       + " because scanner works on characters while it's used as a token-level parser.";
 
-  private final Token[] input;
+  private TokenBuffer input;
+
+  // the Token object last created for the token at tokenAt.
+  private Token token;
+  private int tokenAt = -1;
   
   // in case a terminating eof token is not explicitly created, the implicit one is used.
-  private final int endIndex;
+  private int endIndex;
+
+  // when lexing on demand, the lexer that lexes more tokens on the outer context, until it's done.
+  private LexerParser lexer;
+  private ParseContext outer;
 
   @Override boolean isEof() {
-    return at >= input.length;
+    return !isLexed(at);
   }
   
   @Override int toIndex(int pos) {
-    if (pos >= input.length) return endIndex;
-    return input[pos].index();
+    if (!isLexed(pos)) return endIndex;
+    return input.index(pos);
   }
 
   @Override Token getToken() {
-    return input[at];
+    isLexed(at);
+    if (tokenAt != at) {
+      token = input.token(at);
+      tokenAt = at;
+    }
+    return token;
   }
   
-  ParserState(String module, CharSequence source, Token[] input, int at,
+  ParserState(String module, CharSequence source, TokenBuffer input, int at,
       SourceLocator locator, int endIndex, Object result) {
     super(source, result, at, module, locator);
     this.input = input;
     this.endIndex = endIndex;
   }
   
+  /** Resets to parse {@code tokens} from the beginning, ending at {@code endIndex} in the source. */
+  void reset(TokenBuffer tokens, int endIndex) {
+    reset(0, tokens);
+    clearMemoTable();
+    this.input = tokens;
+    this.token = null;
+    this.tokenAt = -1;
+    this.endIndex = endIndex;
+    this.lexer = null;
+    this.outer = null;
+  }
+
+  /**
+   * Lexes the tokens after the ones already in the buffer only as they are needed, by running {@code lexer}
+   * on {@code outer}.
+   */
+  void lexOnDemand(LexerParser lexer, ParseContext outer) {
+    this.lexer = lexer;
+    this.outer = outer;
+  }
+
+  /** Whether the token at {@code pos} exists, lexing up to it if needed. */
+  private boolean isLexed(int pos) {
+    while (pos >= input.size()) {
+      if (lexer == null) return false;
+      if (lexer.lexNext(outer, input) != LexerParser.MORE) {
+        lexer = null;
+        endIndex = outer.getIndex();
+      }
+    }
+    return true;
+  }
+
+  /**
+   * When lexing on demand, the tokens before {@code position} are dropped, so are the characters lexed,
+   * by committing the outer context.
+   */
+  @Override void forgetBefore(int position) {
+    if (outer == null) return;
+    input.forgetBefore(position);
+    outer.commit();
+  }
+  
+  TokenBuffer tokens() {
+    return input;
+  }
+
   @Override char peekChar() {
     throw new IllegalStateException(USED_ON_TOKEN_INPUT);
   }
@@ -60,8 +120,12 @@ final class ParserState extends ParseContext {
     throw new IllegalStateException(USED_ON_TOKEN_INPUT);
   }
 
+  @Override int charactersEnd() {
+    throw new IllegalStateException(USED_ON_TOKEN_INPUT);
+  }
+
   @Override String getInputName(int pos) {
-    if (pos >= input.length) return EOF;
-    return input[pos].toString();
+    if (!isLexed(pos)) return EOF;
+    return String.valueOf(input.value(pos));
   }
 }
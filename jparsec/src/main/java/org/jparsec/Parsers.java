@@ -165,30 +165,30 @@ public final class Parsers {
     };
   }
 
-  /** Converts a parser of a collection of {@link Token} to a parser of an array of {@code Token}.*/
-  static Parser<Token[]> tokens(final Parser<? extends Collection<Token>> parser) {
-    return parser.map(list -> list.toArray(new Token[list.size()]));
+  /** Converts a parser of a collection of {@link Token} to a parser of a {@link TokenBuffer}.*/
+  static Parser<TokenBuffer> tokens(final Parser<? extends Collection<Token>> parser) {
+    return parser.map(TokenBuffer::of);
   }
   
   /**
-   * A {@link Parser} that takes as input the array of {@link Token} returned from {@code lexer},
+   * A {@link Parser} that takes as input the {@link TokenBuffer} returned from {@code lexer},
    * and feeds the tokens as input into {@code parser}.
    * 
    * <p> It fails if either {@code lexer} or {@code parser} fails.
    * 
-   * @param lexer the lexer object that returns an array of Tok objects.
+   * @param lexer the lexer object that returns the tokens.
    * @param parser the token level parser object.
    * @return the new Parser object.
    */
-  static <T> Parser<T> nested(final Parser<Token[]> lexer, final Parser<? extends T> parser) {
+  static <T> Parser<T> nested(final Parser<TokenBuffer> lexer, final Parser<? extends T> parser) {
     return new Parser<T>() {
       @Override boolean apply(ParseContext ctxt) {
         if (!lexer.apply(ctxt)) return false;
-        Token[] tokens = lexer.getReturn(ctxt);
-        ParserState parserState = new ParserState(
-            ctxt.module, ctxt.source, tokens, 0, ctxt.locator, ctxt.getIndex(), tokens);
+        ParserState parserState = ctxt.nestedState(lexer.getReturn(ctxt));
         ctxt.getTrace().startFresh(parserState);
-        return ctxt.applyNested(parser, parserState);
+        boolean ok = ctxt.applyNested(parser, parserState);
+        ctxt.releaseNestedState(parserState);
+        return ok;
       }
       
       @Override public String toString() {
@@ -197,45 +197,60 @@ public final class Parsers {
     };
   }
 
-  /******************** monadic combinators ******************* */
-
-  /** A {@link Parser} that always returns {@code v} regardless of input. */
-  public static <T> Parser<T> constant(final T v) {
+  /**
+   * A {@link Parser} that feeds the tokens lexed by {@code lexer} into {@code parser}, lexing each token only when
+   * {@code parser} gets to it.
+   */
+  static <T> Parser<T> nestedOnDemand(final LexerParser lexer, final Parser<? extends T> parser) {
     return new Parser<T>() {
       @Override boolean apply(ParseContext ctxt) {
-        ctxt.result = v;
-        return true;
+        TokenBuffer tokens = ctxt.tokenBuffer();
+        int status = lexer.lexFirst(ctxt, tokens);
+        if (status == LexerParser.FAILED) return false;
+        ParserState parserState = ctxt.nestedState(tokens);
+        if (status == LexerParser.MORE) parserState.lexOnDemand(lexer, ctxt);
+        ctxt.getTrace().startFresh(parserState);
+        boolean ok = ctxt.applyNested(parser, parserState);
+        ctxt.releaseNestedState(parserState);
+        return ok;
       }
+      
       @Override public String toString() {
-        return String.valueOf(v);
+        return parser.toString();
       }
     };
   }
 
+  /******************** monadic combinators ******************* */
+
+  /** A {@link Parser} that always returns {@code v} regardless of input. */
+  public static <T> Parser<T> constant(T v) {
+    return new ConstantParser<T>(v);
+  }
+
   /**
    * A {@link Parser} that runs 2 parser objects sequentially. {@code p1} is executed,
    * if it succeeds, {@code p2} is executed.
    */
   public static <T> Parser<T> sequence(Parser<?> p1, Parser<T> p2) {
-    return sequence(p1, p2, InternalFunctors.<Object, T>lastOfTwo());
+    return new SequenceParser(p1, p2).cast();
   }
 
   /** A {@link Parser} that runs 3 parser objects sequentially. */
   public static <T> Parser<T> sequence(Parser<?> p1, Parser<?> p2, Parser<T> p3) {
-    return sequence(p1, p2, p3, InternalFunctors.<Object, Object, T>lastOfThree());
+    return new SequenceParser(p1, p2, p3).cast();
   }
 
   /** A {@link Parser} that runs 4 parser objects sequentially. */
   public static <T> Parser<T> sequence(
       Parser<?> p1, Parser<?> p2, Parser<?> p3, Parser<T> p4) {
-    return sequence(p1, p2, p3, p4, InternalFunctors.<Object, Object, Object, T>lastOfFour());
+    return new SequenceParser(p1, p2, p3, p4).cast();
   }
 
   /** A {@link Parser} that runs 5 parser objects sequentially. */
   public static <T> Parser<T> sequence(
       Parser<?> p1, Parser<?> p2, Parser<?> p3, Parser<?> p4, Parser<T> p5) {
-    return sequence(p1, p2, p3, p4, p5,
-        InternalFunctors.<Object, Object, Object, Object, T>lastOfFive());
+    return new SequenceParser(p1, p2, p3, p4, p5).cast();
   }
 
   /**
@@ -592,18 +607,8 @@ public final class Parsers {
   }
   
   /** A {@link Parser} that runs {@code parsers} sequentially and discards the return values. */
-  public static Parser<Object> sequence(final Parser<?>... parsers) {
-    return new Parser<Object>() {
-      @Override boolean apply(ParseContext ctxt) {
-        for (Parser<?> p : parsers) {
-          if (!p.apply(ctxt)) return false;
-        }
-        return true;
-      }
-      @Override public String toString() {
-        return "sequence";
-      }
-    };
+  public static Parser<Object> sequence(Parser<?>... parsers) {
+    return new SequenceParser(parsers);
   }
   
   /** A {@link Parser} that runs {@code parsers} sequentially and discards the return values. */
@@ -697,26 +702,10 @@ public final class Parsers {
    * <p> Different than {@link #alt(Parser[])}, it requires all alternative parsers to have
    * type {@code T}.
    */
-  public static <T> Parser<T> or(final Parser<? extends T>... alternatives) {
+  public static <T> Parser<T> or(Parser<? extends T>... alternatives) {
     if (alternatives.length == 0) return never();
     if (alternatives.length == 1) return alternatives[0].cast();
-    return new Parser<T>() {
-      @Override boolean apply(ParseContext ctxt) {
-        final Object result = ctxt.result;
-        final int at = ctxt.at;
-        final int step = ctxt.step;
-        for(Parser<? extends T> p : alternatives) {
-          if (p.apply(ctxt)) {
-            return true;
-          }
-          ctxt.set(step, at, result);
-        }
-        return false;
-      }
-      @Override public String toString() {
-        return "or";
-      }
-    };
+    return new OrParser<T>(alternatives);
   }
   
   /**
@@ -821,27 +810,7 @@ public final class Parsers {
    * @return the new Parser object.
    */
   public static <T> Parser<T> token(final TokenMap<? extends T> fromToken) {
-    return new Parser<T>() {
-      @Override boolean apply(final ParseContext ctxt) {
-        if (ctxt.isEof()) {
-          ctxt.missing(fromToken);
-          return false;
-        }
-        Token token = ctxt.getToken();
-        Object v = fromToken.map(token);
-        if (v == null) {
-          ctxt.missing(fromToken);
-          return false;
-        }
-        ctxt.result = v;
-        ctxt.next();
-        return true;
-      }
-      
-      @Override public String toString() {
-        return fromToken.toString();
-      }
-    };
+    return new TokenParser<T>(fromToken);
   }
 
   /**
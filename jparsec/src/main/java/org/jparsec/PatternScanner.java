@@ -0,0 +1,58 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec;
+
+import org.jparsec.pattern.Pattern;
+
+/**
+ * Scans the input for an occurrence of a {@link Pattern}.
+ *
+ * @author Ben Yu
+ */
+final class PatternScanner extends Parser<Void> {
+  final Pattern pattern;
+  final String name;
+
+  /** The only string {@link #pattern} matches, or null if it isn't a string literal. */
+  final String literal;
+
+  PatternScanner(Pattern pattern, String name) {
+    this(pattern, name, null);
+  }
+
+  PatternScanner(Pattern pattern, String name, String literal) {
+    this.pattern = pattern;
+    this.name = name;
+    this.literal = literal;
+  }
+
+  @Override boolean apply(final ParseContext ctxt) {
+    int at = ctxt.at;
+    CharSequence src = ctxt.characters();
+    int matchLength = pattern.match(src, at, ctxt.charactersEnd());
+    if (matchLength < 0) {
+      ctxt.missing(name);
+      return false;
+    }
+    ctxt.next(matchLength);
+    ctxt.result = null;
+    return true;
+  }
+
+  @Override public String toString() {
+    return name;
+  }
+}
@@ -0,0 +1,67 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec;
+
+import org.jparsec.internal.util.Strings;
+
+/**
+ * Scans the body of a quoted string up to the closing {@code quote}, skipping each {@code escape} along with the
+ * character after it. If {@code escape} is {@code quote}, a quote is escaped by doubling it.
+ *
+ * <p>Equivalent to {@code escapedChar(escape).or(isChar(notChar(quote))).many()}, or to
+ * {@code notString(quote).or(string(quote + quote)).many()} when {@code escape == quote}, but jumps from one quote or
+ * escape character to the next with {@link Strings#indexOf}.
+ *
+ * @author Ben Yu
+ */
+final class QuotedBodyScanner extends Parser<Void> {
+  private final char quote;
+  private final char escape;
+
+  QuotedBodyScanner(char quote, char escape) {
+    this.quote = quote;
+    this.escape = escape;
+  }
+
+  @Override boolean apply(ParseContext ctxt) {
+    CharSequence src = ctxt.characters();
+    int end = ctxt.charactersEnd();
+    int i = ctxt.at;
+    int nextQuote = Strings.indexOf(src, quote, i, end);
+    int nextEscape = quote == escape ? end : Strings.indexOf(src, escape, i, end);
+    while (true) {
+      if (nextEscape < nextQuote) {
+        // A trailing escape character at EOF is taken as is.
+        i = Math.min(nextEscape + 2, end);
+        if (i > nextQuote) nextQuote = Strings.indexOf(src, quote, i, end);
+        nextEscape = Strings.indexOf(src, escape, i, end);
+      } else if (quote == escape && nextQuote + 1 < end && src.charAt(nextQuote + 1) == quote) {
+        i = nextQuote + 2;
+        nextQuote = Strings.indexOf(src, quote, i, end);
+      } else {
+        i = nextQuote;
+        break;
+      }
+    }
+    ctxt.next(i - ctxt.at);
+    ctxt.result = null;
+    return true;
+  }
+
+  @Override public String toString() {
+    return "quoted string";
+  }
+}
@@ -0,0 +1,135 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link CharSequence} of the characters read from a {@link Readable} on demand, kept in fixed size chunks
+ * until {@link #release released}.
+ *
+ * <p>{@link #length} is the number of characters read so far. {@link ScannerState} reads {@link #lookahead}
+ * characters ahead of the current position before handing them to a scanner, so that the scanner doesn't take
+ * the end of what's read so far for the end of the input, as long as it doesn't look further ahead.
+ *
+ * <p>{@link IOException} thrown by the {@link Readable} is rethrown wrapped in {@link UncheckedIOException}.
+ *
+ * @author Ben Yu
+ */
+final class ReadableCharSequence implements CharSequence {
+  private static final int CHUNK_BITS = 13;
+  private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+  private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+  private final Readable readable;
+
+  /** The number of characters to read ahead of the current position before running a scanner. */
+  final int lookahead;
+
+  /** The chunks of characters read so far, null if released. */
+  private final List<char[]> chunks = new ArrayList<char[]>();
+
+  /** Released chunks to be reused. */
+  private final List<char[]> free = new ArrayList<char[]>();
+
+  private int length = 0;
+  private int released = 0;
+  private boolean eof = false;
+
+  ReadableCharSequence(Readable readable, int lookahead) {
+    this.readable = readable;
+    this.lookahead = lookahead;
+  }
+
+  /** Reads {@link #lookahead} characters ahead of {@code index}, or until the end of input. */
+  void readAhead(int index) {
+    fill((int) Math.min((long) index + lookahead, Integer.MAX_VALUE));
+  }
+
+  /** Whether {@code index} is at (or beyond) the end of input. */
+  boolean isEnd(int index) {
+    if (index < length) return false;
+    fill(index + 1);
+    return index >= length;
+  }
+
+  /**
+   * Releases the chunks of characters before {@code index}. Reading them again results in
+   * {@link IllegalStateException}.
+   */
+  void release(int index) {
+    for (int end = Math.min(index, length) >>> CHUNK_BITS; released < end; released++) {
+      free.add(chunks.set(released, null));
+    }
+  }
+
+  @Override public int length() {
+    return length;
+  }
+
+  @Override public char charAt(int index) {
+    if (index >= length && isEnd(index)) {
+      throw new IndexOutOfBoundsException("index " + index + " is beyond the end of input: " + length);
+    }
+    char[] chunk = chunks.get(index >>> CHUNK_BITS);
+    if (chunk == null) {
+      throw new IllegalStateException("Character at " + index + " is already released.");
+    }
+    return chunk[index & CHUNK_MASK];
+  }
+
+  @Override public String subSequence(int start, int end) {
+    if (start > end || end > start && isEnd(end - 1)) {
+      throw new IndexOutOfBoundsException("[" + start + ", " + end + ") out of range: " + length);
+    }
+    StringBuilder builder = new StringBuilder(end - start);
+    for (int i = start; i < end; i++) {
+      builder.append(charAt(i));
+    }
+    return builder.toString();
+  }
+
+  /** Returns the characters read so far, which fails if any is released. */
+  @Override public String toString() {
+    return subSequence(0, length);
+  }
+
+  /** Reads until there are at least {@code size} characters or the end of input is reached. */
+  private void fill(int size) {
+    while (length < size && !eof) {
+      int chunkIndex = length >>> CHUNK_BITS;
+      if (chunkIndex == chunks.size()) {
+        chunks.add(free.isEmpty() ? new char[CHUNK_SIZE] : free.remove(free.size() - 1));
+      }
+      int offset = length & CHUNK_MASK;
+      int read;
+      try {
+        read = readable.read(CharBuffer.wrap(chunks.get(chunkIndex), offset, CHUNK_SIZE - offset));
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      if (read < 0) {
+        eof = true;
+      } else {
+        length += read;
+      }
+    }
+  }
+}
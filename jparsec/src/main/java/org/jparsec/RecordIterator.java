@@ -0,0 +1,84 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec;
+
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.jparsec.error.ParserException;
+
+/**
+ * Parses the records separated by {@code separator} one at a time upon {@link #next}, all in the same
+ * {@link ScannerState} and committing after each record. Once a record fails to parse, there are no more records.
+ *
+ * @author Ben Yu
+ */
+final class RecordIterator<T> implements Iterator<T> {
+  private final Parser<T> record;
+  private final Parser<?> separator;
+  private final ScannerState state;
+  private boolean started = false;
+  private boolean pending = false;
+  private boolean done = false;
+
+  RecordIterator(Parser<T> record, Parser<?> separator, ScannerState state) {
+    this.record = record;
+    this.separator = separator;
+    this.state = state;
+  }
+
+  @Override public boolean hasNext() {
+    if (pending) return true;
+    if (done) return false;
+    try {
+      pending = advance();
+    } catch (ParserException e) {
+      done = true;
+      if (e.getCause() instanceof UncheckedIOException) throw (UncheckedIOException) e.getCause();
+      throw e;
+    }
+    done = !pending;
+    return pending;
+  }
+
+  @Override public T next() {
+    if (!hasNext()) throw new NoSuchElementException();
+    pending = false;
+    return record.getReturn(state);
+  }
+
+  private boolean advance() {
+    if (!started) {
+      started = true;
+      if (state.isEof()) return false;
+      state.run(record);
+      state.commit();
+      return true;
+    }
+    if (state.isEof()) return false;
+    int from = state.at;
+    state.run(separator);
+    if (state.isEof()) return false;
+    state.run(record);
+    if (state.at == from) {
+      // Neither the separator nor the record consumed any input, so they would repeat forever.
+      state.run(Parsers.EOF);
+    }
+    state.commit();
+    return true;
+  }
+}
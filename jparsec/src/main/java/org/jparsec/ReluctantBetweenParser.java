@@ -41,7 +41,8 @@ final class ReluctantBetweenParser<T> extends Parser<T> {
 		
 		// try to match the end of the sequence beginning from the very end giving a chance to empty parser to be matched
 		// (see https://github.com/abailly/jparsec/issues/25)
-		ctxt.at = ctxt.source.length();
+		ctxt.characters();
+		ctxt.at = ctxt.charactersEnd();
 		boolean r2 = end.apply(ctxt);
 		int endAt = ctxt.at;
 		while ( !r2 && ctxt.at >=betweenAt ) {
@@ -19,9 +19,9 @@ import java.util.Collection;
 import java.util.List;
 
 final class RepeatAtLeastParser<T> extends Parser<List<T>> {
-  private final Parser<? extends T> parser;
-  private final int min;
-  private final ListFactory<T> listFactory;
+  final Parser<? extends T> parser;
+  final int min;
+  final ListFactory<T> listFactory;
 
   RepeatAtLeastParser(Parser<? extends T> parser, int min) {
     this(parser, min, ListFactory.<T>arrayListFactory());
@@ -53,6 +53,7 @@ final class RepeatAtLeastParser<T> extends Parser<List<T>> {
     int logical = ctxt.step;
     for (;;logical = ctxt.step) {
       if (!parser.apply(ctxt)) {
+        if (ctxt.committedPast(physical)) return false;
         ctxt.setAt(logical, physical);
         return true;
       }
@@ -0,0 +1,62 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import org.jparsec.pattern.CharPredicate;
+
+/**
+ * Equivalent to {@code Scanners.isChar(predicate).atLeast(min)} (or {@code skipAtLeast(min)} if
+ * results aren't collected), only that the characters are scanned in a single loop.
+ *
+ * @author Ben Yu
+ */
+final class RepeatCharScanner extends Parser<Object> {
+  final CharPredicate predicate;
+  private final String name;
+  final int min;
+  final boolean collect;
+
+  RepeatCharScanner(CharPredicate predicate, String name, int min, boolean collect) {
+    this.predicate = predicate;
+    this.name = name;
+    this.min = min;
+    this.collect = collect;
+  }
+
+  @Override boolean apply(ParseContext ctxt) {
+    CharSequence src = ctxt.characters();
+    int end = ctxt.charactersEnd();
+    int from = ctxt.at;
+    int at = from;
+    while (at < end && predicate.isChar(src.charAt(at))) {
+      at++;
+    }
+    int n = at - from;
+    // every character counts as one step, and the last attempt reports the mismatch.
+    ctxt.setAt(ctxt.step + n, at);
+    ctxt.missing(name);
+    if (n < min) return false;
+    ctxt.result = collect ? new ArrayList<Object>(Collections.nCopies(n, null)) : null;
+    return true;
+  }
+
+  @Override public String toString() {
+    return collect ? "atLeast" : "skipAtLeast";
+  }
+}
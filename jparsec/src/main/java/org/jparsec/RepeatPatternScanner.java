@@ -0,0 +1,76 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec;
+
+import java.util.List;
+
+import org.jparsec.internal.util.Lists;
+import org.jparsec.pattern.Pattern;
+
+/**
+ * Equivalent to {@code scanner.atLeast(min)} (or {@code skipAtLeast(min)} if results aren't
+ * collected), where {@code pattern} matches the same as {@code scanner}, only that the pattern is
+ * matched repeatedly in a single loop. {@code scanner} is only run upon mismatch, to report errors.
+ *
+ * @author Ben Yu
+ */
+final class RepeatPatternScanner extends Parser<Object> {
+  final Pattern pattern;
+  final Parser<?> scanner;
+  final int min;
+  final boolean collect;
+
+  RepeatPatternScanner(Pattern pattern, Parser<?> scanner, int min, boolean collect) {
+    this.pattern = pattern;
+    this.scanner = scanner;
+    this.min = min;
+    this.collect = collect;
+  }
+
+  @Override boolean apply(ParseContext ctxt) {
+    CharSequence src = ctxt.characters();
+    int end = ctxt.charactersEnd();
+    int at = ctxt.at;
+    int step = ctxt.step;
+    List<Object> list = collect ? Lists.arrayList() : null;
+    for (int i = 0; ; i++) {
+      int matchLength = pattern.match(src, at, end);
+      if (matchLength < 0) {
+        ctxt.setAt(step, at);
+        // The scanner fails here too, reporting the errors.
+        scanner.apply(ctxt);
+        if (i < min) return false;
+        ctxt.setAt(step, at);
+        break;
+      }
+      if (matchLength > 0) {
+        at += matchLength;
+        step++;
+      } else if (i >= min) {
+        // no progress
+        ctxt.setAt(step, at);
+        break;
+      }
+      if (list != null) list.add(null);
+    }
+    ctxt.result = list;
+    return true;
+  }
+
+  @Override public String toString() {
+    return collect ? "atLeast" : "skipAtLeast";
+  }
+}
@@ -56,6 +56,7 @@ final class RepeatTimesParser<T> extends Parser<List<T>> {
       int physical = ctxt.at;
       int logical = ctxt.step;
       if (!parser.apply(ctxt)) {
+        if (ctxt.committedPast(physical)) return false;
         ctxt.setAt(logical, physical);
         return true;
       }
@@ -23,7 +23,10 @@ import org.jparsec.error.ParserException;
  * @author Ben Yu
  */
 final class ScannerState extends ParseContext {
-  private final int end;
+  private int end;
+
+  /** Not null if the source is read on demand, in which case {@link #end} isn't known up front. */
+  private final ReadableCharSequence stream;
   
   ScannerState(CharSequence source) {
     this(null, source, 0, new SourceLocator(source));
@@ -32,6 +35,13 @@ final class ScannerState extends ParseContext {
   ScannerState(String module, CharSequence source, int from, SourceLocator locator) {
     super(source, from, module, locator);
     this.end = source.length();
+    this.stream = null;
+  }
+
+  ScannerState(String module, ReadableCharSequence source) {
+    super(source, 0, module, new SourceLocator(source));
+    this.end = Integer.MAX_VALUE;
+    this.stream = source;
   }
   
   /**
@@ -46,6 +56,14 @@ final class ScannerState extends ParseContext {
       SourceLocator locator, Object originalResult) {
     super(source, originalResult, from, module, locator);
     this.end = end;
+    this.stream = null;
+  }
+  
+  /** Resets to parse the entire source again, after it's changed in place. */
+  void reset() {
+    reset(0, null);
+    end = source.length();
+    locator.reset();
   }
   
   @Override char peekChar() {
@@ -53,7 +71,7 @@ final class ScannerState extends ParseContext {
   }
   
   @Override boolean isEof() {
-    return end == at;
+    return stream == null ? end == at : stream.isEnd(at);
   }
   
   @Override int toIndex(int pos) {
@@ -61,14 +79,19 @@ final class ScannerState extends ParseContext {
   }
   
   @Override String getInputName(int pos) {
-    if (pos >= end) return EOF;
+    if (stream == null ? pos >= end : stream.isEnd(pos)) return EOF;
     return Character.toString(source.charAt(pos));
   }
   
   @Override CharSequence characters() {
+    if (stream != null) stream.readAhead(at);
     return source;
   }
 
+  @Override int charactersEnd() {
+    return stream == null ? end : stream.length();
+  }
+
   @Override Token getToken() {
     throw new IllegalStateException("Parser not on token level");
   }
@@ -84,7 +107,7 @@ final class ScannerState extends ParseContext {
     return parser.getReturn(this);
   }
 
-  private boolean applyWithExceptionWrapped(Parser<?> parser) {
+  boolean applyWithExceptionWrapped(Parser<?> parser) {
     try {
       return parser.apply(this);
     } catch (RuntimeException e) {
@@ -67,7 +67,7 @@ public final class Scanners {
   public static final Parser<Void> HASKELL_LINE_COMMENT = lineComment("--");
   
   private static final Parser<Void> JAVA_BLOCK_COMMENTED =
-      notChar2('*', '/').many().toScanner("commented block");
+      Patterns.until("*/").toScanner("commented block");
   
   /** Scanner for c++/java style block comment. */
   public static final Parser<Void> JAVA_BLOCK_COMMENT =
@@ -79,7 +79,7 @@ public final class Scanners {
   
   /** Scanner for haskell style block comment. {- -} */
   public static final Parser<Void> HASKELL_BLOCK_COMMENT = Parsers.sequence(
-      string("{-"), notChar2('-', '}').many().toScanner("commented block"), string("-}"));
+      string("{-"), Patterns.until("-}").toScanner("commented block"), string("-}"));
   
   /**
    * Scanner with a pattern for SQL style string literal. A SQL string literal
@@ -87,7 +87,7 @@ public final class Scanners {
    * 2 single quotes.
    */
   public static final Parser<String> SINGLE_QUOTE_STRING = quotedBy(
-      Patterns.notString("'").or(Patterns.string("''")).many().toScanner("quoted string"),
+      new QuotedBodyScanner('\'', '\''),
       isChar('\'')).source();
 
   /**
@@ -95,7 +95,7 @@ public final class Scanners {
    * used as escape character. 
    */
   public static final Parser<String> DOUBLE_QUOTE_STRING = quotedBy(
-      escapedChar('\\').or(Patterns.isChar(CharPredicates.notChar('"'))).many().toScanner("quoted string"),
+      new QuotedBodyScanner('"', '\\'),
       isChar('"')).source();
   
   /** Scanner for a c/c++/java style character literal. such as 'a' or '\\'. */
@@ -133,6 +133,38 @@ public final class Scanners {
   /** Scanner for an integer. */
   public static final Parser<String> INTEGER = Patterns.INTEGER.toScanner("integer").source();
   
+  /**
+   * Scanner for an {@link #INTEGER} evaluated to an {@code int}, without allocating its text.
+   * {@link NumberFormatException} is thrown if the value is too large for {@code int}.
+   *
+   * @since 3.2
+   */
+  public static final IntParser INT = new IntParser() {
+    @Override boolean applyAsInt(ParseContext ctxt) {
+      if (!scanInteger(ctxt, Integer.MAX_VALUE)) return false;
+      ctxt.intResult = (int) ctxt.longResult;
+      return true;
+    }
+    @Override public String toString() {
+      return "integer";
+    }
+  };
+
+  /**
+   * Scanner for an {@link #INTEGER} evaluated to a {@code long}, without allocating its text.
+   * {@link NumberFormatException} is thrown if the value is too large for {@code long}.
+   *
+   * @since 3.2
+   */
+  public static final LongParser LONG = new LongParser() {
+    @Override boolean applyAsLong(ParseContext ctxt) {
+      return scanInteger(ctxt, Long.MAX_VALUE);
+    }
+    @Override public String toString() {
+      return "integer";
+    }
+  };
+  
   /** Scanner for a decimal number. */
   public static final Parser<String> DECIMAL = Patterns.DECIMAL.toScanner("decimal").source();
   
@@ -152,6 +184,33 @@ public final class Scanners {
   public static final Parser<String> SCIENTIFIC_NOTATION =
       Patterns.SCIENTIFIC_NOTATION.toScanner("scientific notation").source();
   
+  /** Scans the digits of an integer no greater than {@code max} into {@link ParseContext#longResult}. */
+  private static boolean scanInteger(ParseContext ctxt, long max) {
+    CharSequence src = ctxt.characters();
+    int length = ctxt.charactersEnd();
+    int begin = ctxt.at;
+    int end = begin;
+    long value = 0;
+    boolean overflow = false;
+    for (; end < length; end++) {
+      char c = src.charAt(end);
+      if (c < '0' || c > '9') break;
+      int digit = c - '0';
+      overflow |= value > (max - digit) / 10;
+      value = value * 10 + digit;
+    }
+    if (end == begin) {
+      ctxt.missing("integer");
+      return false;
+    }
+    if (overflow) {
+      throw new NumberFormatException("For input string: \"" + src.subSequence(begin, end) + "\"");
+    }
+    ctxt.next(end - begin);
+    ctxt.longResult = value;
+    return true;
+  }
+  
   /**
    * A scanner that scans greedily for 0 or more characters that satisfies the given CharPredicate.
    * 
@@ -205,7 +264,7 @@ public final class Scanners {
    * @return the scanner.
    */
   public static Parser<Void> string(String str) {
-    return Patterns.string(str).toScanner(str);
+    return new PatternScanner(Patterns.string(str), str, str);
   }
   
   /**
@@ -230,24 +289,8 @@ public final class Scanners {
    * @deprecated Use {@code pattern.toScanner(name)}.
    */
   @Deprecated
-  public static Parser<Void> pattern(final Pattern pattern, final String name) {
-    return new Parser<Void>() {
-      @Override boolean apply(final ParseContext ctxt) {
-        int at = ctxt.at;
-        CharSequence src = ctxt.characters();
-        int matchLength = pattern.match(src, at, src.length());
-        if (matchLength < 0) {
-          ctxt.missing(name);
-          return false;
-        }
-        ctxt.next(matchLength);
-        ctxt.result = null;
-        return true;
-      }
-      @Override public String toString() {
-        return name;
-      }
-    };
+  public static Parser<Void> pattern(Pattern pattern, String name) {
+    return new PatternScanner(pattern, name);
   }
 
   /**
@@ -279,29 +322,8 @@ public final class Scanners {
    * @param predicate the predicate.
    * @return the scanner.
    */
-  public static Parser<Void> isChar(final CharPredicate predicate) {
-    return new Parser<Void>() {
-      final String name = predicate.toString();
-
-      @Override boolean apply(ParseContext ctxt) {
-        if (ctxt.isEof()) {
-          ctxt.missing(name);
-          return false;
-        }
-        char c = ctxt.peekChar();
-        if (predicate.isChar(c)) {
-          ctxt.next();
-          ctxt.result = null;
-          return true;
-        }
-        ctxt.missing(name);
-        return false;
-      }
-
-      @Override public String toString() {
-        return name;
-      }
-    };
+  public static Parser<Void> isChar(CharPredicate predicate) {
+    return new IsCharScanner(predicate);
   }
   
   /**
@@ -429,7 +451,7 @@ public final class Scanners {
    * {@code end}.
    */
   public static Parser<Void> blockComment(String begin, String end) {
-    Pattern opening = Patterns.string(begin).next(Patterns.notString(end).many());
+    Pattern opening = Patterns.string(begin).next(Patterns.until(end));
     return opening.toScanner(begin).next(string(end));
   }
   
@@ -549,23 +571,6 @@ public final class Scanners {
     };
   }
   
-  /**
-   * Matches a character if the input has at least 1 character, or if the input has at least 2
-   * characters with the first 2 characters not being {@code c1} and {@code c2}.
-   * 
-   * @return the Pattern object.
-   */
-  private static Pattern notChar2(final char c1, final char c2) {
-    return new Pattern() {
-      @Override public int match(CharSequence src, int begin, int end) {
-        if (begin == end - 1) return 1;
-        if (begin >= end) return MISMATCH;
-        if (src.charAt(begin) == c1 && src.charAt(begin + 1) == c2) return Pattern.MISMATCH;
-        return 1;
-      }
-    };
-  }
-  
   private static Parser<Void> quotedBy(Parser<Void> parser, Parser<?> quote) {
     return parser.between(quote, quote);
   }
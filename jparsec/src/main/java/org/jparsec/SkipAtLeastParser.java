@@ -16,8 +16,8 @@
 package org.jparsec;
 
 final class SkipAtLeastParser extends Parser<Void> {
-  private final Parser<?> parser;
-  private final int min;
+  final Parser<?> parser;
+  final int min;
 
   SkipAtLeastParser(Parser<?> parser, int min) {
     this.parser = parser;
@@ -42,6 +42,7 @@ final class SkipAtLeastParser extends Parser<Void> {
     int logical = ctxt.step;
     for (;;logical = ctxt.step) {
       if (!parser.apply(ctxt)) {
+        if (ctxt.committedPast(physical)) return false;
         ctxt.setAt(logical, physical);
         return true;
       }
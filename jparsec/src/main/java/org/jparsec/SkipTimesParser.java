@@ -44,6 +44,7 @@ final class SkipTimesParser extends Parser<Void> {
       int physical = ctxt.at;
       int logical = ctxt.step;
       if (!parser.apply(ctxt)) {
+        if (ctxt.committedPast(physical)) return false;
         ctxt.setAt(logical, physical);
         return true;
       }
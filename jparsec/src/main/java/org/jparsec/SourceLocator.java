@@ -40,6 +40,9 @@ final class SourceLocator {
   @Private
   final IntList lineBreakIndices = new IntList(20);
   
+  /** The number of line breaks scanned but no longer in {@code lineBreakIndices}. See {@link #forgetBefore}. */
+  private int forgottenLineBreaks = 0;
+  
   /** The first line number. */
   private final int startLineNumber;
   
@@ -78,6 +81,27 @@ final class SourceLocator {
     return (index < nextIndex) ? lookup(index) : scanTo(index);
   }
   
+  /** Forgets the scanned line breaks, after the source is changed in place. */
+  void reset() {
+    lineBreakIndices.removeFirst(lineBreakIndices.size());
+    forgottenLineBreaks = 0;
+    nextIndex = 0;
+    nextColumnIndex = 0;
+  }
+  
+  /**
+   * Scans to {@code index} and forgets the indices of the line break characters before it except the last one,
+   * after which only the locations from {@code index} on can be looked up.
+   */
+  void forgetBefore(int index) {
+    if (index > nextIndex) scanTo(index - 1);
+    int forgettable = binarySearch(lineBreakIndices, index) - 1;
+    if (forgettable > 0) {
+      lineBreakIndices.removeFirst(forgettable);
+      forgottenLineBreaks += forgettable;
+    }
+  }
+  
   /**
    * Looks up the location identified by {@code ind} using the cached indices of line break
    * characters. This assumes that all line-break characters before {@code ind} are already scanned.
@@ -88,7 +112,7 @@ final class SourceLocator {
     int lineNumber = binarySearch(lineBreakIndices, index);
     if (lineNumber == 0) return location(0, index);
     int previousBreak = lineBreakIndices.get(lineNumber - 1);
-    return location(lineNumber, index - previousBreak - 1);
+    return location(forgottenLineBreaks + lineNumber, index - previousBreak - 1);
   }
   
   /**
@@ -117,9 +141,9 @@ final class SourceLocator {
     this.nextIndex = index + 1;
     this.nextColumnIndex = columnIndex;
     int lines = lineBreakIndices.size();
-    if (eof) return location(lines, columnIndex);
+    if (eof) return location(forgottenLineBreaks + lines, columnIndex);
     if (columnIndex == 0) return getLineBreakLocation(lines - 1);
-    return location(lines, columnIndex - 1);
+    return location(forgottenLineBreaks + lines, columnIndex - 1);
   }
   
   /**
@@ -133,7 +157,7 @@ final class SourceLocator {
   }
   
   private Location getLineBreakLocation(int lineIndex) {
-    return location(lineIndex, getLineBreakColumnIndex(lineIndex));
+    return location(forgottenLineBreaks + lineIndex, getLineBreakColumnIndex(lineIndex));
   }
   
   private Location location(int l, int c) {
@@ -17,7 +17,6 @@ package org.jparsec;
 
 import java.util.Comparator;
 import java.util.Locale;
-import java.util.function.Function;
 
 enum StringCase implements Comparator<String> {
   CASE_SENSITIVE {
@@ -27,6 +26,12 @@ enum StringCase implements Comparator<String> {
     @Override String toKey(String k) {
       return k;
     }
+    @Override char toKey(char c) {
+      return c;
+    }
+    @Override boolean foldsAsciiOnly() {
+      return false;
+    }
   },
   CASE_INSENSITIVE {
     @Override public int compare(String a, String b) {
@@ -35,12 +40,23 @@ enum StringCase implements Comparator<String> {
     @Override public String toKey(String k) {
       return k.toLowerCase(Locale.ENGLISH);
     }
+    @Override char toKey(char c) {
+      return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+    @Override boolean foldsAsciiOnly() {
+      return true;
+    }
   }
   ;
 
   abstract String toKey(String k);
 
-  final <T> Function<String, T> byKey(Function<String, T> function) {
-    return k -> function.apply(toKey(k));
-  }
+  /**
+   * Returns the key of a single character. Only the case of ASCII characters is folded, so a word is keyed the same
+   * as by {@link #toKey(String)} only if it's all ASCII, or if {@link #foldsAsciiOnly} is false.
+   */
+  abstract char toKey(char c);
+
+  /** Whether {@link #toKey(char)} differs from {@link #toKey(String)} for non-ASCII words. */
+  abstract boolean foldsAsciiOnly();
 }
\ No newline at end of file
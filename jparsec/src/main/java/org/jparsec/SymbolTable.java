@@ -0,0 +1,126 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec;
+
+import java.util.Arrays;
+
+/**
+ * Interns the values that words in the source are mapped to, so that repeated occurrences of a word are
+ * looked up by their characters in the source and share one value, without creating a {@code String} each time.
+ * The table is kept per {@link ParseContext} and cleared upon each {@link ParseContext#reset reset}, so that words
+ * are interned per parse. It stops taking new words once it has {@link #MAX_SIZE} of them.
+ *
+ * @author Ben Yu
+ */
+final class SymbolTable {
+  static final int MAX_SIZE = 1 << 16;
+
+  // the word at slot i is words[i], interned by owners[i] as values[i].
+  private Object[] owners;
+  private String[] words;
+  private Object[] values;
+  private int[] hashes;
+  private int size = 0;
+
+  SymbolTable() {
+    this(64);
+  }
+
+  SymbolTable(int capacity) {
+    owners = new Object[capacity];
+    words = new String[capacity];
+    values = new Object[capacity];
+    hashes = new int[capacity];
+  }
+
+  /** Same as {@link String#hashCode} of the characters in {@code src} from {@code begin} to {@code end}. */
+  static int hash(CharSequence src, int begin, int end) {
+    int h = 0;
+    for (int i = begin; i < end; i++) {
+      h = 31 * h + src.charAt(i);
+    }
+    return h;
+  }
+
+  /**
+   * Returns the value interned by {@code owner} for the word from {@code begin} to {@code end} in {@code src},
+   * whose {@link #hash} is {@code hash}, or null if none.
+   */
+  Object get(Object owner, CharSequence src, int begin, int end, int hash) {
+    int mask = owners.length - 1;
+    for (int slot = mix(hash) & mask; owners[slot] != null; slot = (slot + 1) & mask) {
+      if (hashes[slot] == hash && owners[slot] == owner && matches(words[slot], src, begin, end)) {
+        return values[slot];
+      }
+    }
+    return null;
+  }
+
+  /** Interns {@code value} for {@code word} by {@code owner}, unless the table is full. */
+  void put(Object owner, String word, Object value, int hash) {
+    if (size >= MAX_SIZE) return;
+    if ((size + 1) * 2 > owners.length) rehash(owners.length * 2);
+    int mask = owners.length - 1;
+    int slot = mix(hash) & mask;
+    while (owners[slot] != null) {
+      slot = (slot + 1) & mask;
+    }
+    owners[slot] = owner;
+    words[slot] = word;
+    values[slot] = value;
+    hashes[slot] = hash;
+    size++;
+  }
+
+  int size() {
+    return size;
+  }
+
+  void clear() {
+    if (size == 0) return;
+    Arrays.fill(owners, null);
+    Arrays.fill(words, null);
+    Arrays.fill(values, null);
+    size = 0;
+  }
+
+  private void rehash(int capacity) {
+    Object[] oldOwners = owners;
+    String[] oldWords = words;
+    Object[] oldValues = values;
+    int[] oldHashes = hashes;
+    owners = new Object[capacity];
+    words = new String[capacity];
+    values = new Object[capacity];
+    hashes = new int[capacity];
+    size = 0;
+    for (int i = 0; i < oldOwners.length; i++) {
+      if (oldOwners[i] != null) put(oldOwners[i], oldWords[i], oldValues[i], oldHashes[i]);
+    }
+  }
+
+  private static int mix(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+
+  private static boolean matches(String word, CharSequence src, int begin, int end) {
+    if (word.length() != end - begin) return false;
+    for (int i = 0; i < word.length(); i++) {
+      if (word.charAt(i) != src.charAt(begin + i)) return false;
+    }
+    return true;
+  }
+}
@@ -458,6 +458,7 @@ public final class Terminals extends Lexicon {
     private Collection<String> keywords = new ArrayList<String>();
     private StringCase stringCase = StringCase.CASE_SENSITIVE;
     private Function<String, ?> wordTokenMap = TokenizerMaps.IDENTIFIER_FRAGMENT;
+    private boolean interningWords = false;
     
     Builder(Parser<String> wordScanner) {
       this.wordScanner = Checks.checkNotNull(wordScanner);
@@ -517,10 +518,25 @@ public final class Terminals extends Lexicon {
       return this;
     }
 
+    /**
+     * Interns the words (except keywords), so that all occurrences of the same word in one parse share one token
+     * value, such as the {@link Tokens.Fragment} of an identifier and its text. A repeated word is looked up by its
+     * characters in the source and costs no allocation, and the parsed result retains one copy of it.
+     *
+     * <p>The {@link #tokenizeWordsWith word map} is then called once per distinct word per parse, so it should
+     * return immutable values. At most 65536 distinct words are interned per parse.
+     *
+     * @since 3.2
+     */
+    public Builder internWords() {
+      this.interningWords = true;
+      return this;
+    }
+
     /** Builds a new {@link Terminals} instance that recognizes words defined in this builder. */
     public Terminals build() {
       return new Terminals(
-          union(Keywords.lexicon(wordScanner, keywords, stringCase, wordTokenMap)));
+          union(Keywords.lexicon(wordScanner, keywords, stringCase, wordTokenMap, interningWords)));
     }
   }
 
@@ -546,23 +562,33 @@ public final class Terminals extends Lexicon {
    * Returns a {@link TokenMap} object that only recognizes {@link Tokens.Fragment} token values
    * tagged with one of {@code tags}.
    */
-  static TokenMap<String> fromFragment(final Object... tags) {
-    return new TokenMap<String>() {
-      @Override public String map(final Token token) {
-        final Object val = token.value();
-        if (val instanceof Fragment) {
-          Fragment c = (Fragment) val;
-          if (!Objects.in(c.tag(), tags)) return null;
-          return c.text();
-        }
-        else return null;
-      }
-      @Override public String toString() {
-        if (tags.length == 0) return "";
-        if (tags.length == 1) return String.valueOf(tags[0]);
-        return "[" + Strings.join(", ", tags) + "]";
+  static TokenMap<String> fromFragment(Object... tags) {
+    return new FragmentWithTag(tags);
+  }
+
+  /** Recognizes the {@link Fragment} token values tagged with one of {@link #tags}. */
+  static final class FragmentWithTag implements TokenMap<String> {
+    final Object[] tags;
+
+    FragmentWithTag(Object[] tags) {
+      this.tags = tags;
+    }
+
+    @Override public String map(final Token token) {
+      final Object val = token.value();
+      if (val instanceof Fragment) {
+        Fragment c = (Fragment) val;
+        if (!Objects.in(c.tag(), tags)) return null;
+        return c.text();
       }
-    };
+      else return null;
+    }
+
+    @Override public String toString() {
+      if (tags.length == 0) return "";
+      if (tags.length == 1) return String.valueOf(tags[0]);
+      return "[" + Strings.join(", ", tags) + "]";
+    }
   }
   
   @Private static void checkDup(Iterable<String> a, Iterable<String> b) {
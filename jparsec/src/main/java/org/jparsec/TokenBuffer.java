@@ -0,0 +1,107 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * The tokens for the token level parser, with the index, length and value of each token kept in parallel arrays.
+ * {@link Token} objects are only created upon {@link #token request}.
+ *
+ * @author Ben Yu
+ */
+final class TokenBuffer {
+  private int[] indices;
+  private int[] lengths;
+  private Object[] values;
+  // the number of tokens dropped from the front. Tokens are still numbered from the first one ever added.
+  private int start = 0;
+  private int size = 0;
+
+  TokenBuffer() {
+    this(16);
+  }
+
+  TokenBuffer(int capacity) {
+    this.indices = new int[capacity];
+    this.lengths = new int[capacity];
+    this.values = new Object[capacity];
+  }
+
+  static TokenBuffer of(Collection<Token> tokens) {
+    TokenBuffer buffer = new TokenBuffer(tokens.size());
+    for (Token token : tokens) {
+      buffer.add(token.index(), token.length(), token.value());
+    }
+    return buffer;
+  }
+
+  void add(int index, int length, Object value) {
+    if (size == indices.length) {
+      int capacity = Math.max(16, size * 2);
+      indices = Arrays.copyOf(indices, capacity);
+      lengths = Arrays.copyOf(lengths, capacity);
+      values = Arrays.copyOf(values, capacity);
+    }
+    indices[size] = index;
+    lengths[size] = length;
+    values[size] = value;
+    size++;
+  }
+
+  /** Removes all tokens, keeping the arrays. */
+  void clear() {
+    Arrays.fill(values, 0, size, null);
+    start = 0;
+    size = 0;
+  }
+
+  /** Drops the tokens before the {@code i}th token, which can no longer be accessed. */
+  void forgetBefore(int i) {
+    int n = Math.min(i - start, size);
+    if (n <= 0) return;
+    int remaining = size - n;
+    System.arraycopy(indices, n, indices, 0, remaining);
+    System.arraycopy(lengths, n, lengths, 0, remaining);
+    System.arraycopy(values, n, values, 0, remaining);
+    Arrays.fill(values, remaining, size, null);
+    start += n;
+    size = remaining;
+  }
+
+  /** Returns the number of tokens ever added, including the ones {@link #forgetBefore forgotten}. */
+  int size() {
+    return start + size;
+  }
+
+  int index(int i) {
+    return indices[i - start];
+  }
+
+  int length(int i) {
+    return lengths[i - start];
+  }
+
+  Object value(int i) {
+    return values[i - start];
+  }
+
+  /** Creates the {@link Token} object for the {@code i}th token. */
+  Token token(int i) {
+    return new Token(index(i), length(i), value(i));
+  }
+}
@@ -0,0 +1,98 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Looks up the alternatives of an {@link OrParser} that can match the current token, by the token
+ * value or by the tag of a {@link Tokens.Fragment} token value.
+ *
+ * @author Ben Yu
+ */
+final class TokenDispatch {
+  private final Map<Object, int[]> byValue = new IdentityHashMap<Object, int[]>();
+  private final Map<Object, int[]> byTag = new IdentityHashMap<Object, int[]>();
+  private final int[] others;
+
+  /**
+   * Alternative {@code i} can only match the tokens whose value is one of {@code values[i]} or a
+   * {@link Tokens.Fragment} tagged with one of {@code tags[i]}, or any token if {@code values[i]} is null.
+   */
+  TokenDispatch(List<Object>[] values, List<Object>[] tags) {
+    for (List<Object> keys : values) {
+      if (keys == null) continue;
+      for (Object value : keys) {
+        if (byValue.containsKey(value)) continue;
+        boolean fragment = value instanceof Tokens.Fragment;
+        List<Integer> indices = new ArrayList<Integer>();
+        for (int i = 0; i < values.length; i++) {
+          if (values[i] == null || containsIdentical(values[i], value)
+              || (fragment && containsIdentical(tags[i], ((Tokens.Fragment) value).tag()))) {
+            indices.add(i);
+          }
+        }
+        byValue.put(value, toArray(indices));
+      }
+    }
+    for (List<Object> keys : tags) {
+      if (keys == null) continue;
+      for (Object tag : keys) {
+        if (byTag.containsKey(tag)) continue;
+        List<Integer> indices = new ArrayList<Integer>();
+        for (int i = 0; i < values.length; i++) {
+          if (values[i] == null || containsIdentical(tags[i], tag)) indices.add(i);
+        }
+        byTag.put(tag, toArray(indices));
+      }
+    }
+    List<Integer> indices = new ArrayList<Integer>();
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] == null) indices.add(i);
+    }
+    others = toArray(indices);
+  }
+
+  /** Returns the indices, in order, of the alternatives that can match {@code token}. */
+  int[] candidates(Token token) {
+    Object value = token.value();
+    int[] candidates = byValue.get(value);
+    if (candidates != null) return candidates;
+    if (value instanceof Tokens.Fragment) {
+      candidates = byTag.get(((Tokens.Fragment) value).tag());
+      if (candidates != null) return candidates;
+    }
+    return others;
+  }
+
+  private static boolean containsIdentical(List<Object> list, Object obj) {
+    for (Object element : list) {
+      if (element == obj) return true;
+    }
+    return false;
+  }
+
+  private static int[] toArray(List<Integer> list) {
+    int[] array = new int[list.size()];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = list.get(i);
+    }
+    return array;
+  }
+}
@@ -106,6 +106,31 @@ public final class IntList {
     buf = nbuf;
   }
   
+  /**
+   * Removes the first {@code n} values.
+   *
+   * @param n the number of values to remove.
+   * @throws ArrayIndexOutOfBoundsException if {@code n &lt; 0 or n > size()}.
+   */
+  public void removeFirst(int n) {
+    if (n < 0 || n > len)
+      throw new ArrayIndexOutOfBoundsException(n);
+    System.arraycopy(buf, n, buf, 0, len - n);
+    len -= n;
+  }
+  
+  /**
+   * Removes the values from index {@code size} on.
+   *
+   * @param size the number of values to keep.
+   * @throws ArrayIndexOutOfBoundsException if {@code size &lt; 0 or size > size()}.
+   */
+  public void truncate(int size) {
+    if (size < 0 || size > len)
+      throw new ArrayIndexOutOfBoundsException(size);
+    len = size;
+  }
+
   /**
    * Adds {@code i} into the array.
    * 
@@ -46,4 +46,19 @@ public final class Strings {
     }
     return builder;
   }
+
+  /**
+   * Returns the index of the first {@code c} in {@code src} between {@code from} and {@code end}, or {@code end} if
+   * not found. A whole {@link String} is searched with {@link String#indexOf(int, int)}, which the JVM intrinsifies.
+   */
+  public static int indexOf(CharSequence src, char c, int from, int end) {
+    if (src instanceof String && end == src.length()) {
+      int i = ((String) src).indexOf(c, from);
+      return i < 0 ? end : i;
+    }
+    for (int i = from; i < end; i++) {
+      if (src.charAt(i) == c) return i;
+    }
+    return end;
+  }
 }
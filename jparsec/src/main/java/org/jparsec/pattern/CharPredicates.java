@@ -27,7 +27,7 @@ public final class CharPredicates {
   private CharPredicates() {}
   
   /** A {@link CharPredicate} that always returns false. */
-  public static final CharPredicate NEVER = new CharPredicate() {
+  public static final CharPredicate NEVER = new StatelessCharPredicate() {
     @Override public boolean isChar(char c) {return false;}
     @Override public String toString() {
       return "none";
@@ -35,7 +35,7 @@ public final class CharPredicates {
   };
   
   /** A {@link CharPredicate} that always returns true. */
-  public static final CharPredicate ALWAYS = new CharPredicate() {
+  public static final CharPredicate ALWAYS = new StatelessCharPredicate() {
     @Override public boolean isChar(char c) {return true;}
     @Override public String toString() {
       return "any character";
@@ -46,119 +46,119 @@ public final class CharPredicates {
    * A {@link CharPredicate} that returns true if the character is a digit or within the range
    * of {@code [a-f]} or {@code [A-F]}.
    */
-  public static final CharPredicate IS_HEX_DIGIT = new CharPredicate() {
+  public static final CharPredicate IS_HEX_DIGIT = table(new CharPredicate() {
       @Override public boolean isChar(char c) {
         return c>='0' && c <= '9' || c >='a' && c <='f' || c>='A' && c <= 'F';
       }
       @Override public String toString() {
         return "[0-9a-fA-F]";
       }
-    };
+    });
   
   /**
    * A {@link CharPredicate} that returns true if {@link Character#isUpperCase(char)} returns
    * true.
    */
-  public static final CharPredicate IS_UPPER_CASE = new CharPredicate() {
+  public static final CharPredicate IS_UPPER_CASE = table(new CharPredicate() {
       @Override public boolean isChar(char c) {
         return Character.isUpperCase(c);
       }
       @Override public String toString() {
         return "uppercase";
       }
-    };
+    });
   
   /**
    * A {@link CharPredicate} that returns true if {@link Character#isLowerCase(char)} returns
    * true.
    */
-  public static final CharPredicate IS_LOWER_CASE = new CharPredicate() {
+  public static final CharPredicate IS_LOWER_CASE = table(new CharPredicate() {
       @Override public boolean isChar(char c) {
         return Character.isLowerCase(c);
       }
       @Override public String toString() {
         return "lowercase";
       }
-    };
+    });
   
   /**
    * A {@link CharPredicate} that returns true if {@link Character#isWhitespace(char)}
    * returns true.
    */
-  public static final CharPredicate IS_WHITESPACE = new CharPredicate() {
+  public static final CharPredicate IS_WHITESPACE = table(new CharPredicate() {
       @Override public boolean isChar(char c) {
         return Character.isWhitespace(c);
       }
       @Override public String toString() {
         return "whitespace";
       }
-    };
+    });
   
   /** A {@link CharPredicate} that returns true if the character is an alpha character. */
-  public static final CharPredicate IS_ALPHA = new CharPredicate() {
+  public static final CharPredicate IS_ALPHA = table(new CharPredicate() {
       @Override public boolean isChar(char c) {
         return c <='z' && c>='a' || c <='Z' && c >= 'A';
       }
       @Override public String toString() {
         return "[a-zA-Z]";
       }
-    };
+    });
   
   /**
    * A {@link CharPredicate} that returns true if it is an alpha character or the underscore
    * character {@code _}.
    */
-  public static final CharPredicate IS_ALPHA_ = new CharPredicate() {
+  public static final CharPredicate IS_ALPHA_ = table(new CharPredicate() {
       @Override public boolean isChar(char c) {
         return c == '_' || c <='z' && c>='a' || c <='Z' && c >= 'A';
       }
       @Override public String toString() {
         return "[a-zA-Z_]";
       }
-    };
+    });
   
   /**
    * A {@link CharPredicate} that returns true if {@link Character#isLetter(char)} returns
    * true.
    */
-  public static final CharPredicate IS_LETTER = new CharPredicate() {
+  public static final CharPredicate IS_LETTER = table(new CharPredicate() {
       @Override public boolean isChar(char c) {
         return Character.isLetter(c);
       }
       @Override public String toString() {
         return "letter";
       }
-    };
+    });
   
   /**
    * A {@link CharPredicate} that returns true if it is an alphanumeric character, or an
    * underscore character.
    */
-  public static final CharPredicate IS_ALPHA_NUMERIC = new CharPredicate() {
+  public static final CharPredicate IS_ALPHA_NUMERIC = table(new CharPredicate() {
       @Override public boolean isChar(char c) {
         return c>='A' && c <= 'Z' || c>='a' && c<='z' || c>='0' && c<='9';
       }
       @Override public String toString() {
         return "[0-9a-zA-Z]";
       }
-    };
+    });
   
   /**
    * A {@link CharPredicate} that returns true if it is an alphanumeric character, or an
    * underscore character.
    */
-  public static final CharPredicate IS_ALPHA_NUMERIC_ = new CharPredicate() {
+  public static final CharPredicate IS_ALPHA_NUMERIC_ = table(new CharPredicate() {
       @Override public boolean isChar(char c) {
         return c == '_' || c>='A' && c <= 'Z' || c>='a' && c<='z' || c>='0' && c<='9';
       }
       @Override public String toString() {
         return "[0-9a-zA-Z_]";
       }
-    };
+    });
   
   /** A {@link CharPredicate} that returns true if the character is equal to {@code c}. */
   public static CharPredicate isChar(final char c) {
-    return new CharPredicate() {
+    return new StatelessCharPredicate() {
       @Override public boolean isChar(char x) {
         return x == c;
       }
@@ -170,7 +170,7 @@ public final class CharPredicates {
   
   /** A {@link CharPredicate} that returns true if the character is not equal to {@code c}. */
   public static CharPredicate notChar(final char c) {
-    return new CharPredicate() {
+    return new StatelessCharPredicate() {
       @Override public boolean isChar(char x) {
         return x != c;
       }
@@ -185,7 +185,7 @@ public final class CharPredicates {
    * {@code [a, b]}.
    */
   public static CharPredicate range(final char a, final char b) {
-    return new CharPredicate() {
+    return new StatelessCharPredicate() {
       @Override public boolean isChar(char c) {
         return c >= a && c <= b;
       }
@@ -203,7 +203,7 @@ public final class CharPredicates {
    * {@code [a, b]}.
    */
   public static CharPredicate notRange(final char a, final char b) {
-    return new CharPredicate() {
+    return new StatelessCharPredicate() {
       @Override public boolean isChar(char c) {
         return !(c >= a && c <= b);
       }
@@ -218,14 +218,14 @@ public final class CharPredicates {
    * {@code chars}.
    */
   public static CharPredicate among(final String chars) {
-    return new CharPredicate() {
+    return table(new CharPredicate() {
       @Override public boolean isChar(char c) {
         return chars.indexOf(c) >= 0;
       }
       @Override public String toString() {
         return '[' + chars + ']';
       }
-    };
+    });
   }
   
   /**
@@ -233,26 +233,26 @@ public final class CharPredicates {
    * in {@code chars}.
    */
   public static CharPredicate notAmong(final String chars) {
-    return new CharPredicate() {
+    return table(new CharPredicate() {
       @Override public boolean isChar(char c) {
         return chars.indexOf(c) < 0;
       }
       @Override public String toString() {
         return "^[" + chars + ']';
       }
-    };
+    });
   }
   
   /** A {@link CharPredicate} that returns true if {@code predicate} evaluates to false. */
   public static CharPredicate not(final CharPredicate predicate) {
-    return new CharPredicate() {
+    return tableIfStateless(new CharPredicate() {
       @Override public boolean isChar(char c) {
         return !predicate.isChar(c);
       }
       @Override public String toString() {
         return "^" + predicate;
       }
-    };
+    }, predicate);
   }
   
   /**
@@ -260,14 +260,14 @@ public final class CharPredicates {
    * {@code predicate2} evaluates to true.
    */
   public static CharPredicate and(final CharPredicate predicate1, final CharPredicate predicate2) {
-    return new CharPredicate() {
+    return tableIfStateless(new CharPredicate() {
       @Override public boolean isChar(char c) {
         return predicate1.isChar(c) && predicate2.isChar(c);
       }
       @Override public String toString() {
         return predicate1 + " and " + predicate2;
       }
-    };
+    }, predicate1, predicate2);
   }
   
   /**
@@ -275,14 +275,14 @@ public final class CharPredicates {
    * {@code predicate2} evaluates to true.
    */
   public static CharPredicate or(final CharPredicate predicate1, final CharPredicate predicate2) {
-    return new CharPredicate() {
+    return tableIfStateless(new CharPredicate() {
       @Override public boolean isChar(char c) {
         return predicate1.isChar(c) || predicate2.isChar(c);
       }
       @Override public String toString() {
         return predicate1 + " or " + predicate2;
       }
-    };
+    }, predicate1, predicate2);
   }
   
   /**
@@ -293,7 +293,7 @@ public final class CharPredicates {
     if (predicates.length == 0)
       return ALWAYS;
     else if (predicates.length == 1) return predicates[0];
-    return new CharPredicate() {
+    return tableIfStateless(new CharPredicate() {
       @Override public boolean isChar(char c) {
         for(int i = 0;i < predicates.length;i++) {
           if (!predicates[i].isChar(c)) return false;
@@ -303,7 +303,7 @@ public final class CharPredicates {
       @Override public String toString() {
         return Strings.join(" and ", predicates);
       }
-    };
+    }, predicates);
   }
   
   /**
@@ -314,7 +314,7 @@ public final class CharPredicates {
     if (predicates.length == 0)
       return NEVER;
     else if (predicates.length == 1) return predicates[0];
-    return new CharPredicate() {
+    return tableIfStateless(new CharPredicate() {
       @Override public boolean isChar(char c) {
         for(int i = 0;i < predicates.length;i++) {
           if (predicates[i].isChar(c)) return true;
@@ -324,6 +324,37 @@ public final class CharPredicates {
       @Override public String toString() {
         return Strings.join(" or ", predicates);
       }
-    };
+    }, predicates);
+  }
+
+  /**
+   * Returns a {@link CharPredicate} equivalent to {@code predicate} that looks up Latin-1 characters in a
+   * precomputed bitmap instead of evaluating {@code predicate}. Other characters are still tested against
+   * {@code predicate}. Requires {@code predicate} to be stateless. The other methods of this class only materialize
+   * predicates built from those of this class.
+   *
+   * @since 3.2
+   */
+  public static CharPredicate table(CharPredicate predicate) {
+    return CharTable.of(predicate);
+  }
+
+  /**
+   * Returns true if {@code predicate} is known to always give the same answer for the same character, that is, if
+   * it's a predicate of this class built only from such predicates, or one returned by {@link #table}. Answers of
+   * other predicates can't be precomputed as they may depend on state.
+   *
+   * @since 3.2
+   */
+  public static boolean isStateless(CharPredicate predicate) {
+    return predicate instanceof StatelessCharPredicate;
+  }
+
+  /** Materializes {@code predicate} if all of its {@code operands} are stateless, as it then is too. */
+  private static CharPredicate tableIfStateless(CharPredicate predicate, CharPredicate... operands) {
+    for (CharPredicate operand : operands) {
+      if (!(operand instanceof StatelessCharPredicate)) return predicate;
+    }
+    return table(predicate);
   }
 }
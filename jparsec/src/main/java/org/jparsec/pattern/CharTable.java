@@ -0,0 +1,84 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec.pattern;
+
+/**
+ * A {@link CharPredicate} materialized into a bitmap over the Latin-1 characters, so that testing
+ * {@code c <= 0xFF} takes one array load. Other characters are tested against the original predicate.
+ *
+ * @author Ben Yu
+ */
+final class CharTable implements StatelessCharPredicate {
+  private static final int SIZE = 256;
+
+  private final long[] bits;
+  private final CharPredicate predicate;
+
+  private CharTable(long[] bits, CharPredicate predicate) {
+    this.bits = bits;
+    this.predicate = predicate;
+  }
+
+  /** Returns {@code predicate} materialized into a table, or itself if it's already one. */
+  static CharTable of(CharPredicate predicate) {
+    if (predicate instanceof CharTable) return (CharTable) predicate;
+    long[] bits = new long[SIZE / 64];
+    for (char c = 0; c < SIZE; c++) {
+      if (predicate.isChar(c)) bits[c >> 6] |= 1L << c;
+    }
+    return new CharTable(bits, predicate);
+  }
+
+  /** Returns {@code predicate} materialized into a table if it's {@link StatelessCharPredicate stateless}. */
+  static CharPredicate ifStateless(CharPredicate predicate) {
+    return predicate instanceof StatelessCharPredicate ? of(predicate) : predicate;
+  }
+
+  /**
+   * Returns the index of the first character in {@code src} between {@code from} and {@code end} that doesn't
+   * satisfy {@code predicate}, or {@code end} if all do.
+   */
+  static int skip(CharPredicate predicate, CharSequence src, int from, int end) {
+    if (predicate instanceof CharTable) return ((CharTable) predicate).skip(src, from, end);
+    for (int i = from; i < end; i++) {
+      if (!predicate.isChar(src.charAt(i))) return i;
+    }
+    return end;
+  }
+
+  private int skip(CharSequence src, int from, int end) {
+    if (src instanceof String) {
+      // Keeps String.charAt() inlined when the call site sees several CharSequence implementations.
+      String string = (String) src;
+      for (int i = from; i < end; i++) {
+        if (!isChar(string.charAt(i))) return i;
+      }
+      return end;
+    }
+    for (int i = from; i < end; i++) {
+      if (!isChar(src.charAt(i))) return i;
+    }
+    return end;
+  }
+
+  @Override public boolean isChar(char c) {
+    return c < SIZE ? (bits[c >> 6] & (1L << c)) != 0 : predicate.isChar(c);
+  }
+
+  @Override public String toString() {
+    return predicate.toString();
+  }
+}
@@ -0,0 +1,140 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec.pattern;
+
+import static org.jparsec.pattern.PatternCompiler.ACCEPT;
+import static org.jparsec.pattern.PatternCompiler.CALL;
+import static org.jparsec.pattern.PatternCompiler.PROGRESSED;
+import static org.jparsec.pattern.PatternCompiler.RESTORE;
+import static org.jparsec.pattern.PatternCompiler.SAVE;
+import static org.jparsec.pattern.PatternCompiler.TEST;
+
+/**
+ * A {@link Pattern} compiled by {@link PatternCompiler} into a table of states, which is run in a single loop.
+ * ASCII characters are tested against a bitmap of each {@link CharPredicate}.
+ *
+ * @author Ben Yu
+ */
+final class CompiledPattern extends Pattern {
+  /** Registers kept in local variables. Only patterns nested deeper than that allocate an array per match. */
+  private static final int LOCAL_REGISTERS = 4;
+
+  private final Pattern original;
+  private final int start;
+  private final int registers;
+  private final int[] ops;
+  private final int[] args;
+  private final int[] onMatch;
+  private final int[] onMismatch;
+  private final Object[] refs;
+  // the 2 words at ascii[state * 2] are the bitmap of the ASCII characters that the TEST state matches.
+  private final long[] ascii;
+
+  CompiledPattern(
+      Pattern original, int start, int registers, int[] ops, int[] args,
+      int[] onMatch, int[] onMismatch, Object[] refs, long[] ascii) {
+    this.original = original;
+    this.start = start;
+    this.registers = registers;
+    this.ops = ops;
+    this.args = args;
+    this.onMatch = onMatch;
+    this.onMismatch = onMismatch;
+    this.refs = refs;
+    this.ascii = ascii;
+  }
+
+  static Pattern compile(Pattern pattern) {
+    if (pattern instanceof CompiledPattern) return pattern;
+    PatternCompiler compiler = new PatternCompiler();
+    int start = pattern.emit(compiler, PatternCompiler.ACCEPT, PatternCompiler.FAIL);
+    return compiler.build(pattern, start);
+  }
+
+  @Override public int match(CharSequence src, int begin, int end) {
+    int r0 = 0;
+    int r1 = 0;
+    int r2 = 0;
+    int r3 = 0;
+    int[] saved = registers > LOCAL_REGISTERS ? new int[registers] : null;
+    int at = begin;
+    int state = start;
+    for (;;) {
+      switch (ops[state]) {
+        case TEST:
+          if (at < end) {
+            char c = src.charAt(at);
+            boolean matched = c < 128
+                ? (ascii[state * 2 + (c >> 6)] & (1L << (c & 63))) != 0
+                : ((CharPredicate) refs[state]).isChar(c);
+            if (matched) {
+              at++;
+              state = onMatch[state];
+              break;
+            }
+          }
+          state = onMismatch[state];
+          break;
+        case CALL:
+          int length = ((Pattern) refs[state]).match(src, at, end);
+          if (length == MISMATCH) {
+            state = onMismatch[state];
+          } else {
+            at += length;
+            state = onMatch[state];
+          }
+          break;
+        case SAVE:
+          switch (args[state]) {
+            case 0: r0 = at; break;
+            case 1: r1 = at; break;
+            case 2: r2 = at; break;
+            case 3: r3 = at; break;
+            default: saved[args[state]] = at;
+          }
+          state = onMatch[state];
+          break;
+        case RESTORE:
+          at = load(args[state], r0, r1, r2, r3, saved);
+          state = onMatch[state];
+          break;
+        case PROGRESSED:
+          state = at > load(args[state], r0, r1, r2, r3, saved) ? onMatch[state] : onMismatch[state];
+          break;
+        default:
+          return state == ACCEPT ? at - begin : MISMATCH;
+      }
+    }
+  }
+
+  private static int load(int register, int r0, int r1, int r2, int r3, int[] saved) {
+    switch (register) {
+      case 0: return r0;
+      case 1: return r1;
+      case 2: return r2;
+      case 3: return r3;
+      default: return saved[register];
+    }
+  }
+
+  @Override int emit(PatternCompiler compiler, int match, int mismatch) {
+    return original.emit(compiler, match, mismatch);
+  }
+
+  @Override public String toString() {
+    return original.toString();
+  }
+}
@@ -30,6 +30,10 @@ class LowerBoundedPattern extends Pattern {
     return ManyPattern.matchMany(pattern, src, end, begin + minLen, minLen);
   }
 
+  @Override int emit(PatternCompiler compiler, int match, int mismatch) {
+    return compiler.repeat(this, pattern, min, -1, match, mismatch);
+  }
+
   @Override public String toString() {
     return (min > 1) ? (pattern + "{" + min + ",}") : (pattern + "+");
   }
@@ -40,6 +40,11 @@ class ManyPattern extends Pattern {
     return matchMany(pattern, src, end, begin, 0);
   }
 
+  @Override
+  int emit(PatternCompiler compiler, int match, int mismatch) {
+    return compiler.repeat(this, pattern, 0, -1, match, mismatch);
+  }
+
   @Override
   public String toString() {
     return pattern + "*";
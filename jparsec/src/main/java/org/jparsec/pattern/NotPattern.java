@@ -28,6 +28,13 @@ class NotPattern extends Pattern {
     else return 0;
   }
 
+  @Override int emit(PatternCompiler compiler, int match, int mismatch) {
+    int register = compiler.register();
+    int start = pp.emit(compiler, mismatch, compiler.restore(register, match));
+    compiler.release(register);
+    return compiler.save(register, start);
+  }
+
   @Override public String toString() {
     return "!(" + pp.toString() + ")";
   }
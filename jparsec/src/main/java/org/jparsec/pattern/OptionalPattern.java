@@ -27,6 +27,10 @@ class OptionalPattern extends Pattern {
     return (l == MISMATCH) ? 0 : l;
   }
 
+  @Override int emit(PatternCompiler compiler, int match, int mismatch) {
+    return compiler.optional(pattern, match);
+  }
+
   @Override public String toString() {
     return pattern + "?";
   }
@@ -30,6 +30,10 @@ class OrPattern extends Pattern {
     return MISMATCH;
   }
 
+  @Override int emit(PatternCompiler compiler, int match, int mismatch) {
+    return compiler.or(patterns, match, mismatch);
+  }
+
   @Override public String toString() {
     StringBuilder sb = new StringBuilder().append('(');
     for (Pattern pattern : patterns) {
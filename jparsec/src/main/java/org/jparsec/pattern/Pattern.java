@@ -199,6 +199,27 @@ public abstract class Pattern {
     return new OrPattern(this, p2);
   }
 
+  /**
+   * Returns an equivalent {@link Pattern} that matches in a single loop over a table of states, instead of calling
+   * {@link #match} recursively through the tree of sequences, alternatives and repetitions. Character predicates are
+   * looked up in a bitmap for ASCII characters. Patterns that can't be compiled, such as {@link Patterns#regex}, are
+   * still called from the loop.
+   *
+   * @since 3.2
+   */
+  public final Pattern compile() {
+    return CompiledPattern.compile(this);
+  }
+
+  /**
+   * Emits the states that match this pattern into {@code compiler}, continuing with the {@code match} state if
+   * matched, or the {@code mismatch} state otherwise, and returns the starting state. Unless overridden, this
+   * pattern is called as is.
+   */
+  int emit(PatternCompiler compiler, int match, int mismatch) {
+    return compiler.call(this, match, mismatch);
+  }
+
   /**
    * Returns a scanner parser using {@code this} pattern.
    * Convenient short-hand for {@link Scanners#pattern}.
@@ -226,6 +247,13 @@ public abstract class Pattern {
             return conditionResult + consequenceResult;
         }
       }
+      @Override int emit(PatternCompiler compiler, int match, int mismatch) {
+        int register = compiler.register();
+        int otherwise = compiler.restore(register, alternative.emit(compiler, match, mismatch));
+        int start = cond.emit(compiler, consequence.emit(compiler, match, mismatch), otherwise);
+        compiler.release(register);
+        return compiler.save(register, start);
+      }
     };
   }
 
@@ -238,6 +266,9 @@ public abstract class Pattern {
           return MISMATCH;
         return UpperBoundedPattern.matchSome(max - min, pp, src, end, begin + minLen, minLen);
       }
+      @Override int emit(PatternCompiler compiler, int match, int mismatch) {
+        return compiler.repeat(this, pp, min, max, match, mismatch);
+      }
     };
   }
 }
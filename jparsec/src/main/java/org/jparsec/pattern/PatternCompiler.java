@@ -0,0 +1,243 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec.pattern;
+
+import java.util.Arrays;
+
+/**
+ * Compiles a {@link Pattern} tree into the state table of a {@link CompiledPattern}. Each pattern emits its states
+ * through {@link Pattern#emit}, given the states to continue with upon match and mismatch. Patterns the compiler
+ * doesn't know are called as is.
+ *
+ * <p>A state either tests the current character, calls a pattern, saves the position to or restores it from a
+ * register, or checks whether the position has progressed since it was saved. As patterns never backtrack into
+ * what they matched, a register per {@link OrPattern}, {@link OptionalPattern} etc. is all it takes to try the
+ * alternatives. And as a register is no longer needed once its pattern has matched or mismatched, registers are
+ * numbered by nesting depth, which keeps them few.
+ *
+ * @author Ben Yu
+ */
+final class PatternCompiler {
+  static final int ACCEPT = 0;
+  static final int FAIL = 1;
+
+  static final int TEST = 0;
+  static final int CALL = 1;
+  static final int SAVE = 2;
+  static final int RESTORE = 3;
+  static final int PROGRESSED = 4;
+  static final int END = 5;
+
+  /** Repetitions up to this count are unrolled. */
+  private static final int MAX_UNROLLED = 16;
+  private static final int MAX_STATES = 4096;
+
+  int[] ops = new int[16];
+  int[] args = new int[16];
+  int[] onMatch = new int[16];
+  int[] onMismatch = new int[16];
+  Object[] refs = new Object[16];
+  int states = 0;
+  int registers = 0;
+  private int depth = 0;
+
+  PatternCompiler() {
+    newState(END, null, 0, ACCEPT, ACCEPT);
+    newState(END, null, 0, FAIL, FAIL);
+  }
+
+  /**
+   * A state that consumes the current character if it satisfies {@code predicate}. Predicates that may be stateful
+   * are called through {@link Patterns#isChar(CharPredicate)} because the ASCII bitmap would snapshot them.
+   */
+  int test(CharPredicate predicate, int match, int mismatch) {
+    if (!(predicate instanceof StatelessCharPredicate)) return call(Patterns.isChar(predicate), match, mismatch);
+    return newState(TEST, predicate, 0, match, mismatch);
+  }
+
+  /** A state that consumes what {@code pattern} matches. */
+  int call(Pattern pattern, int match, int mismatch) {
+    return newState(CALL, pattern, 0, match, mismatch);
+  }
+
+  int save(int register, int next) {
+    return newState(SAVE, null, register, next, next);
+  }
+
+  int restore(int register, int next) {
+    return newState(RESTORE, null, register, next, next);
+  }
+
+  /** Allocates a register, to be {@link #release released} once the states of its pattern are emitted. */
+  int register() {
+    registers = Math.max(registers, depth + 1);
+    return depth++;
+  }
+
+  void release(int register) {
+    depth = register;
+  }
+
+  /** Emits {@code patterns} in sequence. */
+  int sequence(Pattern[] patterns, int match, int mismatch) {
+    int state = match;
+    for (int i = patterns.length - 1; i >= 0; i--) {
+      state = patterns[i].emit(this, state, mismatch);
+    }
+    return state;
+  }
+
+  /** Emits {@code alternatives}, each tried from the same position until one matches. */
+  int or(Pattern[] alternatives, int match, int mismatch) {
+    if (alternatives.length == 0) return mismatch;
+    int register = register();
+    int next = mismatch;
+    boolean restored = false;
+    for (int i = alternatives.length - 1; i >= 0; i--) {
+      if (i == alternatives.length - 1) {
+        next = alternatives[i].emit(this, match, mismatch);
+        continue;
+      }
+      int restore = restore(register, next);
+      int start = alternatives[i].emit(this, match, restore);
+      if (isCharTest(start, match, restore)) {
+        onMismatch[start] = next;
+      } else {
+        restored = true;
+      }
+      next = start;
+    }
+    release(register);
+    return restored ? save(register, next) : next;
+  }
+
+  /** Emits {@code pattern}, matching nothing if it mismatches. */
+  int optional(Pattern pattern, int match) {
+    int register = register();
+    int restore = restore(register, match);
+    int start = pattern.emit(this, match, restore);
+    release(register);
+    if (isCharTest(start, match, restore)) {
+      onMismatch[start] = match;
+      return start;
+    }
+    return save(register, start);
+  }
+
+  /**
+   * Emits {@code min} to {@code max} occurrences of {@code pattern}, or at least {@code min} if {@code max} is
+   * negative, in which case the repetition also stops upon an empty match. {@code self} is called instead if the
+   * repetition is too long to unroll.
+   */
+  int repeat(Pattern self, Pattern pattern, int min, int max, int match, int mismatch) {
+    if (!canUnroll(min, max)) return call(self, match, mismatch);
+    int state = max < 0 ? many(pattern, match) : match;
+    for (int i = min; i < max; i++) {
+      int register = register();
+      int restore = restore(register, match);
+      int start = pattern.emit(this, state, restore);
+      release(register);
+      if (isCharTest(start, state, restore)) {
+        onMismatch[start] = match;
+        state = start;
+      } else {
+        state = save(register, start);
+      }
+    }
+    for (int i = 0; i < min; i++) {
+      state = pattern.emit(this, state, mismatch);
+    }
+    return state;
+  }
+
+  /** Same as {@link #repeat(Pattern, Pattern, int, int, int, int)}, for characters satisfying {@code predicate}. */
+  int repeat(Pattern self, CharPredicate predicate, int min, int max, int match, int mismatch) {
+    if (!canUnroll(min, max)) return call(self, match, mismatch);
+    int state = match;
+    if (max < 0) {
+      state = test(predicate, 0, match);
+      onMatch[state] = state;
+    }
+    for (int i = min; i < max; i++) {
+      state = test(predicate, state, match);
+    }
+    for (int i = 0; i < min; i++) {
+      state = test(predicate, state, mismatch);
+    }
+    return state;
+  }
+
+  /** Returns the compiled states, starting from {@code start}. */
+  CompiledPattern build(Pattern original, int start) {
+    long[] ascii = new long[states * 2];
+    for (int i = 0; i < states; i++) {
+      if (ops[i] != TEST) continue;
+      CharPredicate predicate = (CharPredicate) refs[i];
+      for (char c = 0; c < 128; c++) {
+        if (predicate.isChar(c)) ascii[i * 2 + (c >> 6)] |= 1L << (c & 63);
+      }
+    }
+    return new CompiledPattern(
+        original, start, registers, Arrays.copyOf(ops, states), Arrays.copyOf(args, states),
+        Arrays.copyOf(onMatch, states), Arrays.copyOf(onMismatch, states), Arrays.copyOf(refs, states), ascii);
+  }
+
+  /** Loops over {@code pattern} until it mismatches or matches empty, then continues with {@code match}. */
+  private int many(Pattern pattern, int match) {
+    int loop = newState(SAVE, null, register(), 0, 0);
+    int register = args[loop];
+    int progressed = newState(PROGRESSED, null, register, loop, match);
+    int restore = restore(register, match);
+    int start = pattern.emit(this, progressed, restore);
+    release(register);
+    if (isCharTest(start, progressed, restore)) {
+      ops[loop] = TEST;
+      refs[loop] = refs[start];
+      onMatch[loop] = loop;
+      onMismatch[loop] = match;
+    } else {
+      onMatch[loop] = start;
+      onMismatch[loop] = start;
+    }
+    return loop;
+  }
+
+  private boolean canUnroll(int min, int max) {
+    return states < MAX_STATES && min <= MAX_UNROLLED && (max < 0 || max - min <= MAX_UNROLLED);
+  }
+
+  /** Whether {@code state} only tests one character, which means it doesn't move on mismatch. */
+  private boolean isCharTest(int state, int match, int mismatch) {
+    return ops[state] == TEST && onMatch[state] == match && onMismatch[state] == mismatch;
+  }
+
+  private int newState(int op, Object ref, int arg, int match, int mismatch) {
+    if (states == ops.length) {
+      int capacity = states * 2;
+      ops = Arrays.copyOf(ops, capacity);
+      args = Arrays.copyOf(args, capacity);
+      onMatch = Arrays.copyOf(onMatch, capacity);
+      onMismatch = Arrays.copyOf(onMismatch, capacity);
+      refs = Arrays.copyOf(refs, capacity);
+    }
+    ops[states] = op;
+    refs[states] = ref;
+    args[states] = arg;
+    onMatch[states] = match;
+    onMismatch[states] = mismatch;
+    return states++;
+  }
+}
@@ -16,8 +16,7 @@
 package org.jparsec.pattern;
 
 import org.jparsec.internal.util.Checks;
-
-import java.util.regex.Matcher;
+import org.jparsec.internal.util.Strings;
 
 /**
  * Provides common {@link Pattern} implementations.
@@ -35,6 +34,11 @@ public final class Patterns {
       return MISMATCH;
     }
 
+    @Override
+    int emit(PatternCompiler compiler, int match, int mismatch) {
+      return mismatch;
+    }
+
     @Override
     public String toString() {
       return "<>";
@@ -47,6 +51,11 @@ public final class Patterns {
     public int match(CharSequence src, int begin, int end) {
       return 0;
     }
+
+    @Override
+    int emit(PatternCompiler compiler, int match, int mismatch) {
+      return match;
+    }
   };
 
   /** A {@link Pattern} that matches any character and only mismatches for an empty string. */
@@ -112,7 +121,8 @@ public final class Patterns {
   public static final Pattern HEX_INTEGER = string("0x").or(string("0X")).next(many1(CharPredicates.IS_HEX_DIGIT));
 
   /** A {@link Pattern} object that matches a scientific notation, such as {@code 1e12}, {@code 1.2E-1}, etc. */
-  public static final Pattern SCIENTIFIC_NOTATION = sequence(DECIMAL, among("eE"), among("+-").optional(), INTEGER);
+  public static final Pattern SCIENTIFIC_NOTATION =
+      sequence(DECIMAL, among("eE"), among("+-").optional(), INTEGER).compile();
 
   /**
    * A {@link Pattern} object that matches any regular expression pattern string in the form of {@code /some pattern
@@ -184,17 +194,22 @@ public final class Patterns {
    * Returns a {@link Pattern} object that matches if the current character in the input satisfies {@code predicate}, in
    * which case {@code 1} is returned as match length.
    */
-  public static Pattern isChar(final CharPredicate predicate) {
+  public static Pattern isChar(CharPredicate predicate) {
+    final CharPredicate optimized = CharTable.ifStateless(predicate);
     return new Pattern() {
       @Override public int match(CharSequence src, int begin, int end) {
         if (begin >= end)
           return MISMATCH;
-        else if (predicate.isChar(src.charAt(begin)))
+        else if (optimized.isChar(src.charAt(begin)))
           return 1;
         else
           return MISMATCH;
       }
 
+      @Override int emit(PatternCompiler compiler, int match, int mismatch) {
+        return compiler.test(optimized, match, mismatch);
+      }
+
       @Override public String toString() {
         return predicate.toString();
       }
@@ -206,7 +221,14 @@ public final class Patterns {
    * {@code LF} (the line feed character).
    */
   public static Pattern lineComment(String begin) {
-    return string(begin).next(many(CharPredicates.notChar('\n')));
+    return string(begin).next(new Pattern() {
+      @Override public int match(CharSequence src, int from, int end) {
+        return Strings.indexOf(src, '\n', from, end) - from;
+      }
+      @Override public String toString() {
+        return "^\n*";
+      }
+    });
   }
 
   /** Returns a {@link Pattern} object that matches {@code string} literally. */
@@ -216,6 +238,13 @@ public final class Patterns {
         if ((end - begin) < string.length()) return MISMATCH;
         return matchString(string, src, begin, end);
       }
+      @Override int emit(PatternCompiler compiler, int match, int mismatch) {
+        int state = match;
+        for (int i = string.length() - 1; i >= 0; i--) {
+          state = compiler.test(CharPredicates.isChar(string.charAt(i)), state, mismatch);
+        }
+        return state;
+      }
       @Override public String toString() {
         return string;
       }
@@ -253,6 +282,25 @@ public final class Patterns {
     };
   }
 
+  /**
+   * Returns a {@link Pattern} object that matches all characters up to the first occurrence of {@code string}, or to
+   * the end of input if {@code string} isn't found. Equivalent to {@code notString(string).many()}, but finds
+   * {@code string} with a substring search instead of attempting to match it at every position.
+   *
+   * @since 3.2
+   */
+  public static Pattern until(String string) {
+    final StringSearch search = new StringSearch(string);
+    return new Pattern() {
+      @Override public int match(CharSequence src, int begin, int end) {
+        return search.indexOf(src, begin, end) - begin;
+      }
+      @Override public String toString() {
+        return "!(" + string + ")*";
+      }
+    };
+  }
+
   /**
    * Returns a {@link Pattern} object that matches if the input has at least 1 character and doesn't match {@code
    * string} case insensitively. {@code 1} is returned as match length if succeeds.
@@ -348,7 +396,7 @@ public final class Patterns {
    */
   public static Pattern repeat(int n, CharPredicate predicate) {
     Checks.checkNonNegative(n, "n < 0");
-    return new RepeatCharPredicatePattern(n, predicate);
+    return new RepeatCharPredicatePattern(n, CharTable.ifStateless(predicate));
   }
 
   /**
@@ -366,13 +414,17 @@ public final class Patterns {
    * satisfy {@code predicate}.
    * @since 2.2
    */
-  public static Pattern atLeast(final int min, final CharPredicate predicate) {
+  public static Pattern atLeast(final int min, CharPredicate predicate) {
     Checks.checkMin(min);
+    final CharPredicate optimized = CharTable.ifStateless(predicate);
     return new Pattern() {
       @Override public int match(CharSequence src, int begin, int end) {
-        int minLen = RepeatCharPredicatePattern.matchRepeat(min, predicate, src, end, begin, 0);
+        int minLen = RepeatCharPredicatePattern.matchRepeat(min, optimized, src, end, begin, 0);
         if (minLen == MISMATCH) return MISMATCH;
-        return matchMany(predicate, src, end, begin + minLen, minLen);
+        return matchMany(optimized, src, end, begin + minLen, minLen);
+      }
+      @Override int emit(PatternCompiler compiler, int match, int mismatch) {
+        return compiler.repeat(this, optimized, min, -1, match, mismatch);
       }
       @Override public String toString() {
         return (min > 1) ? (predicate + "{" + min + ",}") : (predicate + "+");
@@ -381,10 +433,14 @@ public final class Patterns {
   }
 
   /** Returns a {@link Pattern} that matches 0 or more characters satisfying {@code predicate}. */
-  public static Pattern many(final CharPredicate predicate) {
+  public static Pattern many(CharPredicate predicate) {
+    final CharPredicate optimized = CharTable.ifStateless(predicate);
     return new Pattern() {
       @Override public int match(CharSequence src, int begin, int end) {
-        return matchMany(predicate, src, end, begin, 0);
+        return matchMany(optimized, src, end, begin, 0);
+      }
+      @Override int emit(PatternCompiler compiler, int match, int mismatch) {
+        return compiler.repeat(this, optimized, 0, -1, match, mismatch);
       }
       @Override public String toString() {
         return predicate + "*";
@@ -408,15 +464,21 @@ public final class Patterns {
    *
    * @since 2.2
    */
-  public static Pattern times(final int min, final int max, final CharPredicate predicate) {
+  public static Pattern times(final int min, final int max, CharPredicate predicate) {
     Checks.checkMinMax(min, max);
+    final CharPredicate optimized = CharTable.ifStateless(predicate);
     return new Pattern() {
       @Override
       public int match(CharSequence src, int begin, int end) {
-        int minLen = RepeatCharPredicatePattern.matchRepeat(min, predicate, src, end, begin, 0);
+        int minLen = RepeatCharPredicatePattern.matchRepeat(min, optimized, src, end, begin, 0);
         if (minLen == MISMATCH)
           return MISMATCH;
-        return matchSome(max - min, predicate, src, end, begin + minLen, minLen);
+        return matchSome(max - min, optimized, src, end, begin + minLen, minLen);
+      }
+
+      @Override
+      int emit(PatternCompiler compiler, int match, int mismatch) {
+        return compiler.repeat(this, optimized, min, max, match, mismatch);
       }
     };
   }
@@ -436,12 +498,18 @@ public final class Patterns {
    * {@code predicate}.
    * @since 2.2
    */
-  public static Pattern atMost(final int max, final CharPredicate predicate) {
+  public static Pattern atMost(final int max, CharPredicate predicate) {
     Checks.checkMax(max);
+    final CharPredicate optimized = CharTable.ifStateless(predicate);
     return new Pattern() {
       @Override
       public int match(CharSequence src, int begin, int end) {
-        return matchSome(max, predicate, src, end, begin, 0);
+        return matchSome(max, optimized, src, end, begin, 0);
+      }
+
+      @Override
+      int emit(PatternCompiler compiler, int match, int mismatch) {
+        return compiler.repeat(this, optimized, 0, max, match, mismatch);
       }
     };
   }
@@ -510,31 +578,19 @@ public final class Patterns {
 
   /**
    * Adapts a regular expression pattern to a {@link Pattern}.
-   * 
-   * <p><em>WARNING</em>: in addition to regular expression cost, the returned {@code Pattern} object needs
-   * to make a substring copy every time it's evaluated. This can incur excessive copying and memory overhead
-   * when parsing large strings. Consider implementing {@code Pattern} manually for large input.
+   *
+   * <p>The returned {@code Pattern} matches within the input without copying it, reusing one
+   * {@link java.util.regex.Matcher} per thread.
    */
-  public static Pattern regex(final java.util.regex.Pattern p) {
-    return new Pattern() {
-      @Override
-      public int match(CharSequence src, int begin, int end) {
-        if (begin > end)
-          return MISMATCH;
-        Matcher matcher = p.matcher(src.subSequence(begin, end));
-        if (matcher.lookingAt())
-          return matcher.end();
-        return MISMATCH;
-      }
-    };
+  public static Pattern regex(java.util.regex.Pattern p) {
+    return new RegexPattern(p);
   }
 
   /**
    * Adapts a regular expression pattern string to a {@link Pattern}.
-   * 
-   * <p><em>WARNING</em>: in addition to regular expression cost, the returned {@code Pattern} object needs
-   * to make a substring copy every time it's evaluated. This can incur excessive copying and memory overhead
-   * when parsing large strings. Consider implementing {@code Pattern} manually for large input.
+   *
+   * <p>The returned {@code Pattern} matches within the input without copying it, reusing one
+   * {@link java.util.regex.Matcher} per thread.
    */
   public static Pattern regex(String s) {
     return regex(java.util.regex.Pattern.compile(s));
@@ -546,18 +602,14 @@ public final class Patterns {
 
   private static int matchSome(int max, CharPredicate predicate, CharSequence src, int len, int from, int acc) {
     int k = Math.min(max + from, len);
-    for (int i = from; i < k; i++) {
-      if (!predicate.isChar(src.charAt(i)))
-        return i - from + acc;
-    }
-    return k - from + acc;
+    return CharTable.skip(predicate, src, from, k) - from + acc;
   }
 
   private static Pattern getRegularExpressionPattern() {
     Pattern quote = isChar('/');
     Pattern escape = isChar('\\').next(hasAtLeast(1));
     Pattern content = or(escape, isChar(CharPredicates.notAmong("/\r\n\\")));
-    return quote.next(content.many()).next(quote);
+    return quote.next(content.many()).next(quote).compile();
   }
 
   private static Pattern getModifiersPattern() {
@@ -566,11 +618,7 @@ public final class Patterns {
 
   private static int matchMany(
       CharPredicate predicate, CharSequence src, int len, int from, int acc) {
-    for (int i = from; i < len; i++) {
-      if (!predicate.isChar(src.charAt(i)))
-        return i - from + acc;
-    }
-    return len - from + acc;
+    return CharTable.skip(predicate, src, from, len) - from + acc;
   }
 
   private  static int matchStringCaseInsensitive(String str, CharSequence src, int begin, int end) {
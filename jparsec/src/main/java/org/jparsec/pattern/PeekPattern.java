@@ -29,6 +29,13 @@ class PeekPattern extends Pattern {
     else return 0;
   }
 
+  @Override int emit(PatternCompiler compiler, int match, int mismatch) {
+    int register = compiler.register();
+    int start = pp.emit(compiler, compiler.restore(register, match), mismatch);
+    compiler.release(register);
+    return compiler.save(register, start);
+  }
+
   @Override public String toString() {
     return "(?:" + pp.toString() + ")";
   }
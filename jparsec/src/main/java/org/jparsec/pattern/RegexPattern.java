@@ -0,0 +1,50 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec.pattern;
+
+import java.util.regex.Matcher;
+
+/**
+ * Adapts a {@link java.util.regex.Pattern}. Each thread reuses one {@link Matcher}, limited to the matched range
+ * with {@link Matcher#region}, so neither the input nor the matcher is copied or allocated per match.
+ *
+ * @author Ben Yu
+ */
+final class RegexPattern extends Pattern {
+  private final java.util.regex.Pattern regex;
+  private final ThreadLocal<Matcher> matchers;
+
+  RegexPattern(java.util.regex.Pattern regex) {
+    this.regex = regex;
+    this.matchers = ThreadLocal.withInitial(() -> regex.matcher(""));
+  }
+
+  @Override public int match(CharSequence src, int begin, int end) {
+    if (begin > end) return MISMATCH;
+    // With the default anchoring and opaque bounds, the region looks to the regex like src.subSequence(begin, end).
+    Matcher matcher = matchers.get().reset(src).region(begin, end);
+    try {
+      return matcher.lookingAt() ? matcher.end() - begin : MISMATCH;
+    } finally {
+      // Don't hold on to the input after the match.
+      matcher.reset("");
+    }
+  }
+
+  @Override public String toString() {
+    return regex.pattern();
+  }
+}
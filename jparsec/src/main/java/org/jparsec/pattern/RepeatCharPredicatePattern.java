@@ -29,6 +29,10 @@ class RepeatCharPredicatePattern extends Pattern {
     return matchRepeat(n, predicate, src, end, begin, 0);
   }
 
+  @Override int emit(PatternCompiler compiler, int match, int mismatch) {
+    return compiler.repeat(this, predicate, n, n, match, mismatch);
+  }
+
   @Override public String toString() {
     return predicate.toString() + '{' + n + '}';
   }
@@ -36,9 +40,7 @@ class RepeatCharPredicatePattern extends Pattern {
   static int matchRepeat(int n, CharPredicate predicate, CharSequence src, int length, int begin, int acc) {
     int end = begin + n;
     if (end > length) return MISMATCH;
-    for (int i = begin; i < end; i++) {
-      if (!predicate.isChar(src.charAt(i))) return MISMATCH;
-    }
+    if (CharTable.skip(predicate, src, begin, end) < end) return MISMATCH;
     return n + acc;
   }
 }
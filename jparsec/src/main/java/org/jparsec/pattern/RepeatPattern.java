@@ -28,6 +28,10 @@ class RepeatPattern extends Pattern {
     return matchRepeat(n, pattern, src, end, begin, 0);
   }
 
+  @Override int emit(PatternCompiler compiler, int match, int mismatch) {
+    return compiler.repeat(this, pattern, n, n, match, mismatch);
+  }
+
   @Override public String toString() {
     return pattern.toString() + '{' + n + '}';
   }
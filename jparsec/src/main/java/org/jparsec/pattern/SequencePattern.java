@@ -32,6 +32,10 @@ class SequencePattern extends Pattern {
     return current - begin;
   }
 
+  @Override int emit(PatternCompiler compiler, int match, int mismatch) {
+    return compiler.sequence(patterns, match, mismatch);
+  }
+
   @Override public String toString() {
     StringBuilder sb = new StringBuilder();
     for (Pattern pattern : patterns) {
@@ -0,0 +1,67 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec.pattern;
+
+import java.util.Arrays;
+
+/**
+ * Finds occurrences of a string with the Boyer-Moore-Horspool algorithm.
+ *
+ * <p>Searching a whole {@link String} is delegated to {@link String#indexOf(String, int)}, which the JVM intrinsifies.
+ *
+ * @author Ben Yu
+ */
+final class StringSearch {
+  private final String string;
+
+  /** How far to shift upon each last character of the window, hashed by its lowest 8 bits. */
+  private final int[] skip = new int[256];
+
+  StringSearch(String string) {
+    this.string = string;
+    int last = string.length() - 1;
+    Arrays.fill(skip, string.length());
+    // Later characters overwrite earlier ones, so colliding characters get the smallest, and safe, shift.
+    for (int i = 0; i < last; i++) {
+      skip[string.charAt(i) & 0xFF] = last - i;
+    }
+  }
+
+  /**
+   * Returns the index of the first occurrence of the string in {@code src} between {@code from} and {@code end},
+   * or {@code end} if not found.
+   */
+  int indexOf(CharSequence src, int from, int end) {
+    if (src instanceof String && end == src.length()) {
+      int i = ((String) src).indexOf(string, from);
+      return i < 0 ? end : i;
+    }
+    int last = string.length() - 1;
+    if (last < 0) return from;
+    char lastChar = string.charAt(last);
+    for (int i = from; i + last < end; i += skip[src.charAt(i + last) & 0xFF]) {
+      if (src.charAt(i + last) == lastChar && matchesAt(src, i, last)) return i;
+    }
+    return end;
+  }
+
+  private boolean matchesAt(CharSequence src, int at, int length) {
+    for (int i = 0; i < length; i++) {
+      if (src.charAt(at + i) != string.charAt(i)) return false;
+    }
+    return true;
+  }
+}
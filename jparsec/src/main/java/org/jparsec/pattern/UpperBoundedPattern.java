@@ -28,6 +28,10 @@ class UpperBoundedPattern extends Pattern {
     return matchSome(max, pattern, src, end, begin, 0);
   }
 
+  @Override int emit(PatternCompiler compiler, int match, int mismatch) {
+    return compiler.repeat(this, pattern, 0, max, match, mismatch);
+  }
+
   @Override public String toString() {
     return pattern.toString() + "{0," + max + '}';
   }
@@ -202,6 +202,19 @@ public class DefaultSourceLocatorTest {
     assertEquals(new Location(3, 4), locator.locate(7));
     assertEquals(new Location(2, 5), locator.locate(2)); // this will call lookup()
   }
+
+  @Test
+  public void testForgetBefore() {
+    SourceLocator locator = new SourceLocator("a\nb\nc\nd\ne");
+    locator.forgetBefore(5);
+    assertEquals(1, locator.lineBreakIndices.size());
+    assertEquals(3, locator.lineBreakIndices.get(0));
+    assertEquals(new Location(3, 1), locator.locate(4));
+    assertEquals(new Location(3, 2), locator.locate(5));
+    assertEquals(new Location(5, 1), locator.locate(8));
+    assertEquals(new Location(4, 2), locator.locate(7)); // this will call lookup()
+    assertEquals(new Location(5, 2), locator.locate(9));
+  }
   
   private static void addLineBreaks(SourceLocator locator, int... indices) {
     for (int i : indices) {
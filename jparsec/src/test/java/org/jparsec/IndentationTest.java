@@ -44,7 +44,9 @@ public class IndentationTest {
 
   @Parameterized.Parameters
   public static Collection<Object[]> data() {
-    return Arrays.asList(new Object[] {Parser.Mode.PRODUCTION}, new Object[] {Parser.Mode.DEBUG});
+    return Arrays.asList(
+        new Object[] {Parser.Mode.PRODUCTION}, new Object[] {Parser.Mode.DEBUG},
+        new Object[] {Parser.Mode.OPTIMISTIC});
   }
 
   private final Parser.Mode mode;
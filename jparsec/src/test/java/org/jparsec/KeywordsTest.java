@@ -15,12 +15,16 @@
  *****************************************************************************/
 package org.jparsec;
 
+import org.jparsec.pattern.CharPredicates;
+import org.jparsec.pattern.Patterns;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 /**
  * Unit test for {@link Keywords}.
@@ -60,6 +64,51 @@ public class KeywordsTest {
     assertEquals(Tokens.identifier("baz"), lexicon.tokenizer.parse("baz"));
   }
 
+  @Test
+  public void testLexicon_manyKeywords() {
+    List<String> keywords = new ArrayList<String>();
+    for (int i = 0; i < 300; i++) {
+      keywords.add("k" + Integer.toString(i, 36));
+    }
+    Lexicon lexicon = Keywords.lexicon(
+        Scanners.IDENTIFIER, keywords, StringCase.CASE_INSENSITIVE, TokenizerMaps.IDENTIFIER_FRAGMENT);
+    for (String keyword : keywords) {
+      assertEquals(Tokens.reserved(keyword), lexicon.tokenizer.parse(keyword.toUpperCase()));
+    }
+    assertEquals(Tokens.identifier("k"), lexicon.tokenizer.parse("k"));
+    assertEquals(Tokens.identifier("k1_"), lexicon.tokenizer.parse("k1_"));
+    assertEquals(Tokens.identifier("kzzz"), lexicon.tokenizer.parse("kzzz"));
+    assertNull(lexicon.words.apply("x"));
+    assertNull(lexicon.words.apply("k1_"));
+  }
+
+  @Test
+  public void testLexicon_caseInsensitiveNonAscii() {
+    Parser<String> word = Patterns.many1(CharPredicates.IS_LETTER).toScanner("word").source();
+    Lexicon lexicon = Keywords.lexicon(
+        word, asList("if", "stra\u00dfe", "\u212aey"), StringCase.CASE_INSENSITIVE, TokenizerMaps.IDENTIFIER_FRAGMENT);
+    assertEquals(Tokens.reserved("if"), lexicon.tokenizer.parse("IF"));
+    // Lower case of U+0130 is "i" followed by a combining dot.
+    assertEquals(Tokens.identifier("\u0130F"), lexicon.tokenizer.parse("\u0130F"));
+    assertEquals(Tokens.reserved("stra\u00dfe"), lexicon.tokenizer.parse("STRA\u00dfE"));
+    assertEquals(Tokens.identifier("STRASSE"), lexicon.tokenizer.parse("STRASSE"));
+    // Lower case of the Kelvin sign U+212A is "k".
+    assertEquals(Tokens.reserved("\u212aey"), lexicon.tokenizer.parse("KEY"));
+    assertEquals(Tokens.reserved("\u212aey"), lexicon.tokenizer.parse("\u212aEY"));
+  }
+
+  @Test
+  public void testLexicon_wordScannerNotSource() {
+    Lexicon lexicon = Keywords.lexicon(
+        Scanners.IDENTIFIER.map(String::trim), asList("foo"), StringCase.CASE_INSENSITIVE,
+        TokenizerMaps.IDENTIFIER_FRAGMENT);
+    assertEquals(Tokens.reserved("foo"), lexicon.tokenizer.parse("FOO"));
+    assertEquals(Tokens.identifier("fooo"), lexicon.tokenizer.parse("fooo"));
+    Lexicon empty = Keywords.lexicon(
+        Scanners.IDENTIFIER, asList(), StringCase.CASE_SENSITIVE, TokenizerMaps.IDENTIFIER_FRAGMENT);
+    assertEquals(Tokens.identifier("foo"), empty.tokenizer.parse("foo"));
+  }
+
   @Test
   public void testUnique() {
     Asserts.assertArrayEquals(
@@ -0,0 +1,113 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link MemoTable}.
+ * 
+ * @author Ben Yu
+ */
+public class MemoTableTest {
+
+  @Test
+  public void testFind() {
+    MemoTable table = new MemoTable();
+    Object parser = new Object();
+    assertEquals(-1, table.find(parser, 1, 0));
+    table.put(parser, 1, 0, true, 3, 3, 1, "foo", null);
+    assertTrue(table.find(parser, 1, 0) >= 0);
+    assertEquals(-1, table.find(parser, 1, 1));
+    assertEquals(-1, table.find(new Object(), 1, 0));
+    assertEquals(1, table.size());
+  }
+
+  @Test
+  public void testPutOverwrites() {
+    MemoTable table = new MemoTable();
+    Object parser = new Object();
+    table.put(parser, 1, 0, true, 3, 3, 1, "foo", null);
+    table.put(parser, 1, 0, false, 2, 2, 0, null, null);
+    assertEquals(1, table.size());
+    ScannerState ctxt = new ScannerState("abc");
+    assertFalse(table.replay(table.find(parser, 1, 0), ctxt));
+    assertEquals(2, ctxt.at);
+    assertEquals(0, ctxt.step);
+  }
+
+  @Test
+  public void testReplay() {
+    MemoTable table = new MemoTable();
+    Object parser = new Object();
+    table.put(parser, 1, 1, true, 3, 3, 2, "bc", null);
+    ScannerState ctxt = new ScannerState("abc");
+    ctxt.set(1, 1, null);
+    assertTrue(table.replay(table.find(parser, 1, 1), ctxt));
+    assertEquals(3, ctxt.at);
+    assertEquals(3, ctxt.step);
+    assertEquals("bc", ctxt.result);
+  }
+
+  @Test
+  public void testResize() {
+    MemoTable table = new MemoTable();
+    Object[] parsers = {new Object(), new Object(), new Object()};
+    for (int at = 0; at < 1000; at++) {
+      for (int i = 0; i < parsers.length; i++) {
+        table.put(parsers[i], i, at, true, at + i, at + i, i, null, null);
+      }
+    }
+    assertEquals(3000, table.size());
+    ScannerState ctxt = new ScannerState("");
+    for (int at = 0; at < 1000; at++) {
+      for (int i = 0; i < parsers.length; i++) {
+        table.replay(table.find(parsers[i], i, at), ctxt);
+        assertEquals(at + i, ctxt.at);
+      }
+    }
+  }
+
+  @Test
+  public void testClear() {
+    MemoTable table = new MemoTable();
+    Object parser = new Object();
+    table.put(parser, 1, 0, true, 3, 3, 1, "foo", null);
+    table.clear();
+    assertEquals(0, table.size());
+    assertEquals(-1, table.find(parser, 1, 0));
+  }
+
+  @Test
+  public void testForgetBefore() {
+    MemoTable table = new MemoTable();
+    Object parser = new Object();
+    for (int at = 0; at < 100; at++) {
+      table.put(parser, 1, at, true, at + 1, at + 1, 1, null, null);
+    }
+    table.forgetBefore(90);
+    assertEquals(10, table.size());
+    assertEquals(-1, table.find(parser, 1, 89));
+    assertTrue(table.find(parser, 1, 90) >= 0);
+    assertTrue(table.find(parser, 1, 99) >= 0);
+    table.forgetBefore(0);
+    assertEquals(10, table.size());
+  }
+}
@@ -19,7 +19,13 @@ import org.jparsec.easymock.BaseMockTest;
 import org.junit.Test;
 
 import java.util.function.BiFunction;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
 import java.util.function.Function;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongUnaryOperator;
 
 import static org.easymock.EasyMock.expect;
 import static org.junit.Assert.assertEquals;
@@ -72,6 +78,68 @@ public class OperatorTableExpressionTest extends BaseMockTest {
     assertSame(operand, new OperatorTable<String>().build(operand));
   }
 
+  @Test
+  public void testIntOperatorTable() {
+    IntParser parser = new IntOperatorTable()
+        .prefix(op("-", (IntUnaryOperator) a -> -a), 100)
+        .infixl(op("+", (IntBinaryOperator) (a, b) -> a + b), 10)
+        .infixl(op("-", (IntBinaryOperator) (a, b) -> a - b), 10)
+        .infixl(op("*", (IntBinaryOperator) (a, b) -> a * b), 20)
+        .build(Scanners.INT);
+    assertEquals((Integer) 3, parser.parse("3"));
+    assertEquals((Integer) (-1), parser.parse("--1-2"));
+    assertEquals((Integer) 8, parser.parse("1+2*3-4*-1+-3"));
+    Asserts.assertFailure(Parser.Mode.PRODUCTION, parser, "1+", 1, 3, "integer expected, EOF encountered.");
+  }
+
+  @Test
+  public void testLongOperatorTable() {
+    LongParser parser = new LongOperatorTable()
+        .prefix(op("-", (LongUnaryOperator) a -> -a), 100)
+        .infixl(op("*", (LongBinaryOperator) (a, b) -> a * b), 20)
+        .infixl(op("+", (LongBinaryOperator) (a, b) -> a + b), 10)
+        .build(Scanners.LONG);
+    assertEquals((Long) 10000000001L, parser.parse("100000*100000+1"));
+    assertEquals((Long) (-7L), parser.parse("-3+-2*2"));
+  }
+
+  @Test
+  public void testDoubleOperatorTable() {
+    DoubleParser parser = new DoubleOperatorTable()
+        .prefix(op("-", (DoubleUnaryOperator) a -> -a), 100)
+        .infixl(op("/", (DoubleBinaryOperator) (a, b) -> a / b), 20)
+        .infixl(op("-", (DoubleBinaryOperator) (a, b) -> a - b), 10)
+        .build(Scanners.DECIMAL.mapToDouble(Double::parseDouble));
+    assertEquals((Double) 0.25, parser.parse("1/2/2"));
+    assertEquals((Double) (-2.5), parser.parse("-1-3/2"));
+  }
+
+  @Test
+  public void testPrimitiveOperatorTable_committedOperator() {
+    Parser<?> plus = Scanners.isChar('+').commit().next(Scanners.isChar('+'));
+    Parser<?> minus = Scanners.isChar('-').commit().next(Scanners.isChar('-'));
+    IntParser ints = new IntOperatorTable()
+        .prefix(minus.retn((IntUnaryOperator) a -> -a), 100)
+        .infixl(plus.retn((IntBinaryOperator) (a, b) -> a + b), 10)
+        .build(Scanners.INT);
+    assertEquals((Integer) 1, ints.parse("--1++2"));
+    Asserts.assertFailure(Parser.Mode.PRODUCTION, ints, "1+2", 1, 3);
+    Asserts.assertFailure(Parser.Mode.PRODUCTION, ints, "-1", 1, 2);
+    LongParser longs = new LongOperatorTable()
+        .infixl(plus.retn((LongBinaryOperator) (a, b) -> a + b), 10)
+        .build(Scanners.LONG);
+    Asserts.assertFailure(Parser.Mode.PRODUCTION, longs, "1+2", 1, 3);
+    DoubleParser doubles = new DoubleOperatorTable()
+        .infixl(plus.retn((DoubleBinaryOperator) (a, b) -> a + b), 10)
+        .build(Scanners.DECIMAL.mapToDouble(Double::parseDouble));
+    Asserts.assertFailure(Parser.Mode.PRODUCTION, doubles, "1+2", 1, 3);
+  }
+
+  @Test
+  public void testEmptyPrimitiveOperatorTable() {
+    assertSame(Scanners.INT, new IntOperatorTable().build(Scanners.INT));
+  }
+
   private Parser<String> parser() {
     return new OperatorTable<String>()
         .prefix(op("~", negate), 100)
@@ -53,4 +53,17 @@ public class OperatorsTest {
     }
   }
 
+  @Test
+  public void testLexicon_longestMatch() {
+    Lexicon lexicon = Operators.lexicon(Arrays.asList("a", "abc", "<", "<<", "<<="));
+    Parser<?> tokenizer = lexicon.tokenizer;
+    assertEquals(Tokens.reserved("abc"), tokenizer.parse("abc"));
+    assertEquals(Tokens.reserved("<<"), tokenizer.followedBy(Scanners.isChar('<')).parse("<<<"));
+    assertEquals(Tokens.reserved("a"), tokenizer.followedBy(Scanners.isChar('b')).parse("ab"));
+    assertEquals(Arrays.asList(Tokens.reserved("<<="), Tokens.reserved("<")), tokenizer.many().parse("<<=<"));
+    Asserts.assertFailure(
+        Parser.Mode.PRODUCTION, tokenizer, "b", 1, 1, "<<=, <<, <, abc or a expected, b encountered.");
+    Asserts.assertFailure(Parser.Mode.PRODUCTION, tokenizer, "", 1, 1);
+  }
+
 }
@@ -0,0 +1,162 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jparsec.error.ParserException;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link ParseSession}.
+ *
+ * @author Ben Yu
+ */
+public class ParseSessionTest {
+
+  private final AtomicInteger parsed = new AtomicInteger();
+  private final Parser<List<String>> words = Scanners.IDENTIFIER
+      .map(s -> {
+        parsed.incrementAndGet();
+        return s;
+      })
+      .followedBy(Scanners.isChar(';'))
+      .followedBy(Scanners.isChar('\n').skipMany())
+      .memoizeRelocatable()
+      .many();
+
+  @Test
+  public void testParse() {
+    ParseSession<List<String>> session = words.session("foo;bar;", 1);
+    assertEquals(Arrays.asList("foo", "bar"), session.parse());
+    assertEquals(2, parsed.get());
+    assertEquals(Arrays.asList("foo", "bar"), session.parse());
+    assertEquals(2, parsed.get());
+    assertEquals("foo;bar;", session.source());
+  }
+
+  @Test
+  public void testReparse() {
+    StringBuilder source = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      source.append("w").append(i).append(';');
+    }
+    ParseSession<List<String>> session = words.session(source, 1);
+    assertEquals(100, session.parse().size());
+    parsed.set(0);
+    int offset = source.indexOf("w50;");
+    List<String> result = session.reparse(offset + 1, 2, "fifty");
+    assertEquals("wfifty", result.get(50));
+    assertEquals("w99", result.get(99));
+    assertEquals(100, result.size());
+    assertTrue(String.valueOf(parsed.get()), parsed.get() <= 2);
+    source.replace(offset + 1, offset + 3, "fifty");
+    assertEquals(source.toString(), session.source());
+    assertEquals(words.parse(source), result);
+  }
+
+  @Test
+  public void testReparse_resultsWithPositions() {
+    Parser<List<Token>> tokens = Scanners.IDENTIFIER.token().followedBy(Scanners.isChar(';')).memoize().many();
+    ParseSession<List<Token>> session = tokens.session("foo;bar;", 1);
+    assertEquals(4, session.parse().get(1).index());
+    List<Token> result = session.reparse(0, 0, "ab;");
+    assertEquals(3, result.size());
+    assertEquals(0, result.get(0).index());
+    assertEquals(3, result.get(1).index());
+    assertEquals(7, result.get(2).index());
+    assertEquals(tokens.parse("ab;foo;bar;"), result);
+  }
+
+  @Test
+  public void testReparse_insertionAndRemoval() {
+    ParseSession<List<String>> session = words.session("foo;bar;baz;", 1);
+    session.parse();
+    assertEquals(Arrays.asList("foo", "bar", "new", "baz"), session.reparse(8, 0, "new;"));
+    assertEquals(Arrays.asList("foo", "barbaz"), session.reparse(7, 5, ""));
+    assertEquals(Arrays.asList("afoo", "barbaz"), session.reparse(0, 0, "a"));
+    assertEquals(Arrays.asList("afoo", "barbaz", "x"), session.reparse(12, 0, "x;"));
+  }
+
+  @Test
+  public void testReparse_errorLocation() {
+    ParseSession<List<String>> session = words.session("foo;\nbar;\nbaz;", 1);
+    session.parse();
+    try {
+      session.reparse(6, 1, "?");
+      fail();
+    } catch (ParserException e) {
+      assertEquals(2, e.getLine());
+      assertEquals(2, e.getColumn());
+    }
+    assertEquals(Arrays.asList("foo", "bar", "baz"), session.reparse(6, 1, "a"));
+  }
+
+  @Test
+  public void testNewSession() {
+    ParseSession<List<String>> session = words.newSession();
+    assertEquals(Arrays.asList("foo", "bar"), session.parse("foo;bar;"));
+    assertEquals(Arrays.asList("baz"), session.parse("baz;"));
+    assertEquals(Arrays.asList(), session.parse(""));
+    try {
+      session.parse("a;\nb;\nc?");
+      fail();
+    } catch (ParserException e) {
+      assertEquals(3, e.getLine());
+      assertEquals(2, e.getColumn());
+    }
+    try {
+      session.parse("a?");
+      fail();
+    } catch (ParserException e) {
+      assertEquals(1, e.getLine());
+      assertEquals(2, e.getColumn());
+    }
+    assertEquals(Arrays.asList("foo"), session.parse("foo;"));
+  }
+
+  @Test
+  public void testNewSession_tokenLevel() {
+    Terminals terminals = Terminals.operators("+").words(Scanners.IDENTIFIER).build();
+    Parser<List<String>> parser = Terminals.Identifier.PARSER.sepBy(terminals.token("+"))
+        .from(terminals.tokenizer(), Scanners.WHITESPACES.optional(null));
+    ParseSession<List<String>> session = parser.newSession();
+    assertEquals(Arrays.asList("a", "b"), session.parse("a + b"));
+    assertEquals(Arrays.asList("c"), session.parse("c"));
+    try {
+      session.parse("a + + b");
+      fail();
+    } catch (ParserException e) {
+      assertEquals(5, e.getColumn());
+    }
+    assertEquals(Arrays.asList("x", "y", "z"), session.parse("x+y+z"));
+  }
+
+  @Test
+  public void testReparse_invalidRange() {
+    ParseSession<List<String>> session = words.session("foo;", 1);
+    try {
+      session.reparse(2, 3, "");
+      fail();
+    } catch (IllegalArgumentException e) {}
+  }
+}
@@ -39,7 +39,9 @@ public class ParserErrorHandlingTest {
 
   @Parameterized.Parameters
   public static Collection<Object[]> data() {
-    return Arrays.asList(new Object[] {Parser.Mode.PRODUCTION}, new Object[] {Parser.Mode.DEBUG});
+    return Arrays.asList(
+        new Object[] {Parser.Mode.PRODUCTION}, new Object[] {Parser.Mode.DEBUG},
+        new Object[] {Parser.Mode.OPTIMISTIC});
   }
 
   private final Parser.Mode mode;
@@ -0,0 +1,309 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec;
+
+import static org.jparsec.Asserts.assertFailure;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jparsec.error.ParserException;
+import org.jparsec.pattern.CharPredicates;
+import org.jparsec.pattern.Patterns;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+/**
+ * Unit test for {@link ParserOptimizer}.
+ *
+ * @author Ben Yu
+ */
+@RunWith(Parameterized.class)
+public class ParserOptimizerTest {
+
+  @Parameterized.Parameters
+  public static Collection<Object[]> data() {
+    return Arrays.asList(
+        new Object[] {Parser.Mode.PRODUCTION}, new Object[] {Parser.Mode.DEBUG},
+        new Object[] {Parser.Mode.OPTIMISTIC});
+  }
+
+  private final Parser.Mode mode;
+
+  public ParserOptimizerTest(Parser.Mode mode) {
+    this.mode = mode;
+  }
+
+  @Test
+  public void testUnchanged() {
+    Parser<?> parser = Parsers.or(Scanners.IDENTIFIER, Scanners.INTEGER);
+    assertSame(parser, parser.optimize());
+    assertSame(Scanners.INTEGER, Scanners.INTEGER.optimize());
+  }
+
+  @Test
+  public void testOrFlattened() {
+    Parser<String> parser = Parsers.or(
+        Parsers.constant("a").followedBy(Scanners.isChar('a')),
+        Parsers.or(Parsers.constant("b").followedBy(Scanners.isChar('b')), Parsers.constant("c")),
+        Parsers.constant("d"));
+    Parser<String> optimized = parser.optimize();
+    assertEquals(3, ((OrParser<?>) optimized).alternatives.length);
+    assertEquals("a", optimized.parse("a", mode));
+    assertEquals("b", optimized.parse("b", mode));
+    assertEquals("c", optimized.parse("", mode));
+  }
+
+  @Test
+  public void testSequenceFlattened() {
+    Parser<?> parser = Parsers.sequence(
+        Scanners.isChar('a'), Parsers.sequence(Scanners.isChar('b'), Scanners.isChar('c')), Parsers.INDEX);
+    Parser<?> optimized = parser.optimize();
+    assertEquals(4, ((SequenceParser) optimized).parsers.length);
+    assertEquals(3, optimized.parse("abc", mode));
+    assertFailure(mode, optimized, "abd", 1, 3, "c expected");
+  }
+
+  @Test
+  public void testMapFused() {
+    Parser<Integer> parser = Scanners.INTEGER.map(Integer::valueOf).map(i -> i + 1).map(i -> i * 2);
+    Parser<Integer> optimized = parser.optimize();
+    assertFalse(((MapParser<?, ?>) optimized).parser instanceof MapParser);
+    assertEquals(Integer.valueOf(8), optimized.parse("3", mode));
+  }
+
+  @Test
+  public void testRetnSkipsDiscardedMaps() {
+    AtomicInteger counter = new AtomicInteger();
+    Parser<String> parser = Scanners.isChar('a').map(x -> counter.incrementAndGet()).retn(1).retn("one");
+    Parser<?> optimized = parser.optimize();
+    assertEquals(2, ((SequenceParser) optimized).parsers.length);
+    assertEquals("one", optimized.parse("a", mode));
+    assertEquals(0, counter.get());
+  }
+
+  @Test
+  public void testConstantNotDroppedBeforeParserWithoutResult() {
+    Parser<?> parser = Parsers.sequence(Parsers.constant("foo"), Parsers.EOF);
+    assertEquals("foo", parser.optimize().parse("", mode));
+  }
+
+  @Test
+  public void testSkipManyScanner() {
+    Parser<Void> parser = Scanners.isChar(CharPredicates.IS_DIGIT).skipMany();
+    Parser<?> optimized = parser.optimize();
+    assertTrue(optimized instanceof RepeatCharScanner);
+    assertNull(optimized.parse("123", mode));
+    assertNull(optimized.parse("", mode));
+    assertFailure(mode, optimized.followedBy(Parsers.EOF), "12a", 1, 3, "[0-9] or EOF expected");
+  }
+
+  @Test
+  public void testManyScanner() {
+    Parser<Integer> parser = Scanners.isChar(CharPredicates.IS_DIGIT).many1().map(l -> l.size());
+    Parser<Integer> optimized = parser.optimize();
+    assertTrue(((MapParser<?, ?>) optimized).parser instanceof RepeatCharScanner);
+    assertEquals(Integer.valueOf(3), optimized.parse("123", mode));
+    assertFailure(mode, optimized, "a", 1, 1, "[0-9] expected");
+  }
+
+  @Test
+  public void testRepeatedPatternScanner() {
+    Parser<String> parser = Patterns.string("ab").toScanner("ab").atLeast(2).source();
+    Parser<String> optimized = Parsers.sequence(Parsers.INDEX, parser).optimize();
+    assertEquals("ababab", optimized.parse("ababab", mode));
+    assertFailure(mode, optimized, "abac", 1, 3, "ab expected");
+    assertEquals(Arrays.asList(null, null),
+        Patterns.string("ab").toScanner("ab").many().optimize().parse("abab", mode));
+  }
+
+  @Test
+  public void testStringsFolded() {
+    Parser<String> parser = Parsers.or(
+        Scanners.string("+="), Scanners.string("+"), Scanners.string("-"), Scanners.isChar('*')).source();
+    Parser<String> optimized = Parsers.or(parser, Parsers.constant("")).optimize();
+    assertEquals("+=", optimized.parse("+=", mode));
+    assertEquals("+", optimized.parse("+", mode));
+    assertEquals("-", optimized.parse("-", mode));
+    assertEquals("*", optimized.parse("*", mode));
+    assertFailure(mode, parser.optimize(), "/", 1, 1, "+=, +, - or * expected");
+  }
+
+  @Test
+  public void testLabelOnParserThatNeverFails() {
+    Parser<?> parser = Scanners.isChar('a').skipMany().label("as").optimize();
+    assertTrue(((LabelParser<?>) parser).treeNodeOnly);
+    assertNull(parser.parse("aa", mode));
+    assertFailure(mode, Scanners.isChar('a').label("a").optimize(), "b", 1, 1, "a expected");
+  }
+
+  @Test
+  public void testOrTruncatedAfterParserThatNeverFails() {
+    Parser<String> parser = Parsers.or(
+        Parsers.constant("a").followedBy(Scanners.isChar('a')), Parsers.constant("b"), Parsers.constant("c"));
+    Parser<String> optimized = parser.optimize();
+    assertEquals(2, ((OrParser<?>) optimized).alternatives.length);
+    assertEquals("b", optimized.parse("", mode));
+  }
+
+  @Test
+  public void testRepeatedCompositeScanner() {
+    Parser<?> optimized = Scanners.JAVA_DELIMITER.optimize();
+    assertTrue(optimized instanceof RepeatPatternScanner);
+    assertNull(optimized.parse(" // comment\n /* comment */\t", mode));
+    assertFailureAsBefore(Scanners.JAVA_DELIMITER.followedBy(Parsers.EOF), " /* comment ");
+    assertFailureAsBefore(Scanners.JAVA_DELIMITER.followedBy(Parsers.EOF), " /* comment */ x");
+    Parser<?> keywords = Parsers.or(Scanners.string("if"), Scanners.string("in")).many1().source();
+    assertEquals("ifinif", keywords.optimize().parse("ifinif", mode));
+    assertFailureAsBefore(keywords.followedBy(Parsers.EOF), "ifix");
+  }
+
+  @Test
+  public void testOrDispatchedByFirstChar() {
+    Parser<String> parser = Parsers.or(
+        Scanners.string("+=").retn("plus equals"),
+        Scanners.isChar('+').retn("plus"),
+        Scanners.INTEGER,
+        Parsers.sequence(Scanners.isChar('\u00e9'), Scanners.isChar('-')).retn("accented"),
+        Scanners.isChar('-').retn("minus"));
+    Parser<String> optimized = parser.optimize();
+    assertEquals("plus equals", optimized.parse("+=", mode));
+    assertEquals("plus", optimized.parse("+", mode));
+    assertEquals("123", optimized.parse("123", mode));
+    assertEquals("minus", optimized.parse("-", mode));
+    assertEquals("accented", optimized.parse("\u00e9-", mode));
+    assertFailureAsBefore(parser, "*");
+    assertFailureAsBefore(parser, "");
+    assertFailureAsBefore(parser, "\u00e9");
+    assertFailureAsBefore(
+        Parsers.or(Scanners.isChar('x').label("x"), Scanners.string("ab").label("ab")), "ac");
+    assertFailureAsBefore(
+        Parsers.or(Scanners.string("ab").label("ab"), Scanners.isChar('x').label("x"),
+            Scanners.string("ac").label("ac"), Scanners.isChar('y').label("y")),
+        "ad");
+  }
+
+  @Test
+  public void testOrNotDispatchedByStatefulPredicate() {
+    boolean[] accepting = {false};
+    Parser<String> parser = Parsers.or(
+        Scanners.isChar(c -> accepting[0]).retn("any"), Scanners.isChar('a').retn("a")).optimize();
+    assertEquals("a", parser.parse("a", mode));
+    assertFailure(mode, parser, "b", 1, 1);
+    accepting[0] = true;
+    assertEquals("any", parser.parse("a", mode));
+    assertEquals("any", parser.parse("b", mode));
+  }
+
+  @Test
+  public void testOrDispatched_nestedFailure() {
+    AtomicInteger mapped = new AtomicInteger();
+    Parser.Reference<String> ref = Parser.newReference();
+    Parser<String> parser = Parsers.or(
+        Scanners.isChar('x').map(x -> "x" + mapped.incrementAndGet()),
+        Parsers.between(Scanners.isChar('('), ref.lazy(), Scanners.isChar(')')),
+        Parsers.between(Scanners.isChar('['), ref.lazy(), Scanners.isChar(']')));
+    ref.set(parser.optimize());
+    StringBuilder source = new StringBuilder();
+    for (int i = 0; i < 20; i++) source.append('(');
+    source.append('x');
+    for (int i = 0; i < 20; i++) source.append(']');
+    assertFailure(mode, ref.get(), source.toString(), 1, 22, ") expected, ] encountered.");
+    assertEquals(mode == Parser.Mode.OPTIMISTIC ? 2 : 1, mapped.get());
+  }
+
+  @Test
+  public void testOrDispatchedWithEmptyMatch() {
+    Parser<?> parser = Parsers.or(Scanners.isChar('a'), Scanners.isChar('b').many())
+        .followedBy(Scanners.isChar('c'));
+    assertEquals(Arrays.asList(), parser.optimize().parse("c", mode));
+    assertFailureAsBefore(parser, "d");
+    assertFailureAsBefore(parser, "ad");
+  }
+
+  @Test
+  public void testOrDispatchedByTokenValue() {
+    Terminals terminals = Terminals.operators("+", "-")
+        .words(Scanners.IDENTIFIER).keywords("select", "insert", "delete").build();
+    Parser<String> parser = Parsers.or(
+        terminals.token("select").retn("select"),
+        Parsers.sequence(terminals.token("insert", "delete"), Terminals.Identifier.PARSER),
+        terminals.token("+").retn("plus"),
+        Terminals.fragment(Tokens.Tag.RESERVED).map(s -> "reserved " + s),
+        Terminals.IntegerLiteral.PARSER);
+    Parser<String> optimized = parser.optimize();
+    Parser<?> lexer = Parsers.or(terminals.tokenizer(), Terminals.IntegerLiteral.TOKENIZER);
+    assertEquals("select", optimized.from(lexer, Scanners.WHITESPACES).parse("select", mode));
+    assertEquals("t", optimized.from(lexer, Scanners.WHITESPACES).parse("insert t", mode));
+    assertEquals("t", optimized.from(lexer, Scanners.WHITESPACES).parse("delete t", mode));
+    assertEquals("plus", optimized.from(lexer, Scanners.WHITESPACES).parse("+", mode));
+    assertEquals("reserved -", optimized.from(lexer, Scanners.WHITESPACES).parse("-", mode));
+    assertEquals("12", optimized.from(lexer, Scanners.WHITESPACES).parse("12", mode));
+    assertFailureAsBefore(
+        parser.from(lexer, Scanners.WHITESPACES), optimized.from(lexer, Scanners.WHITESPACES), "t");
+    assertFailureAsBefore(
+        parser.from(lexer, Scanners.WHITESPACES), optimized.from(lexer, Scanners.WHITESPACES), "insert +");
+    assertFailureAsBefore(
+        parser.from(lexer, Scanners.WHITESPACES), optimized.from(lexer, Scanners.WHITESPACES), "");
+  }
+
+  @Test
+  public void testOrDispatchedByTokenValue_nestedFailure() {
+    Terminals terminals = Terminals.operators("(", ")", "[", "]").words(Scanners.IDENTIFIER).build();
+    AtomicInteger mapped = new AtomicInteger();
+    Parser.Reference<String> ref = Parser.newReference();
+    Parser<String> parser = Parsers.or(
+        Terminals.Identifier.PARSER.map(s -> s + mapped.incrementAndGet()),
+        Parsers.between(terminals.token("("), ref.lazy(), terminals.token(")")),
+        Parsers.between(terminals.token("["), ref.lazy(), terminals.token("]")));
+    ref.set(parser.optimize());
+    StringBuilder source = new StringBuilder();
+    for (int i = 0; i < 20; i++) source.append('(');
+    source.append('x');
+    for (int i = 0; i < 20; i++) source.append(']');
+    assertFailure(mode, ref.get().from(terminals.tokenizer(), Scanners.WHITESPACES.skipMany()), source.toString(),
+        1, 22, ") expected, ] encountered.");
+    assertEquals(mode == Parser.Mode.OPTIMISTIC ? 2 : 1, mapped.get());
+  }
+
+  private void assertFailureAsBefore(Parser<?> parser, String source) {
+    assertFailureAsBefore(parser, parser.optimize(), source);
+  }
+
+  private void assertFailureAsBefore(Parser<?> parser, Parser<?> optimized, String source) {
+    String message = null;
+    try {
+      parser.parse(source, mode);
+      fail();
+    } catch (ParserException e) {
+      message = e.getMessage();
+    }
+    try {
+      optimized.parse(source, mode);
+      fail();
+    } catch (ParserException e) {
+      assertEquals(message, e.getMessage());
+    }
+  }
+}
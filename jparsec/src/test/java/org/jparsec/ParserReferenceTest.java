@@ -36,7 +36,9 @@ public class ParserReferenceTest {
 
   @Parameterized.Parameters
   public static Collection<Object[]> data() {
-    return Arrays.asList(new Object[] {Parser.Mode.PRODUCTION}, new Object[] {Parser.Mode.DEBUG});
+    return Arrays.asList(
+        new Object[] {Parser.Mode.PRODUCTION}, new Object[] {Parser.Mode.DEBUG},
+        new Object[] {Parser.Mode.OPTIMISTIC});
   }
 
   private final Parser.Mode mode;
@@ -64,4 +66,64 @@ public class ParserReferenceTest {
     assertFailure(mode, ref.lazy(), "", 1, 1, "Uninitialized lazy parser reference");
   }
 
+  @Test
+  public void testLeftRecursiveReference() {
+    Parser.Reference<String> ref = Parser.newLeftRecursiveReference();
+    assertEquals("lazy", ref.lazy().toString());
+    ref.set(Parsers.or(
+        Parsers.sequence(
+            ref.lazy(), Scanners.isChar('.'), Scanners.IDENTIFIER, (a, dot, b) -> "(" + a + "." + b + ")"),
+        Scanners.IDENTIFIER));
+    Parser<String> parser = ref.lazy();
+    assertEquals("a", parser.parse("a", mode));
+    assertEquals("((a.b).c)", parser.parse("a.b.c", mode));
+    assertEquals("((a.b).c)",
+        parser.between(Scanners.isChar('['), Scanners.isChar(']')).parse("[a.b.c]", mode));
+    assertFailure(mode, parser, "a.b.", 1, 5, "word expected, EOF encountered.");
+    assertFailure(mode, parser, ".a", 1, 1);
+  }
+
+  @Test
+  public void testLeftRecursiveReference_leftAssociative() {
+    Parser.Reference<Integer> ref = Parser.newLeftRecursiveReference();
+    Parser<Integer> number = Scanners.INTEGER.map(Integer::valueOf);
+    ref.set(Parsers.or(
+        Parsers.sequence(ref.lazy(), Scanners.isChar('-'), number, (a, minus, b) -> a - b),
+        number));
+    assertEquals((Object) 5, ref.lazy().parse("10-2-3", mode));
+    assertEquals((Object) 10, ref.lazy().parse("10", mode));
+    assertEquals((Object) 1, ref.lazy().sepBy(Scanners.isChar(',')).map(l -> l.size()).parse("10-2-3", mode));
+  }
+
+  @Test
+  public void testLeftRecursiveReference_throughPlainReference() {
+    Parser.Reference<String> ref = Parser.newLeftRecursiveReference();
+    Parser.Reference<String> call = Parser.newReference();
+    call.set(Parsers.sequence(ref.lazy(), Scanners.isChar('('), Scanners.isChar(')'), (f, l, r) -> f + "()"));
+    ref.set(Parsers.or(
+        call.lazy(),
+        Parsers.sequence(ref.lazy(), Scanners.isChar('.'), Scanners.IDENTIFIER, (a, dot, b) -> a + "." + b),
+        Scanners.IDENTIFIER));
+    assertEquals("a.b().c()()", ref.lazy().parse("a.b().c()()", mode));
+  }
+
+  @Test
+  public void testLeftRecursiveReference_withCommit() {
+    Parser.Reference<String> ref = Parser.newLeftRecursiveReference();
+    ref.set(Parsers.or(
+        Parsers.sequence(
+            ref.lazy(), Scanners.isChar('.').commit(), Scanners.IDENTIFIER, (a, dot, b) -> "(" + a + "." + b + ")"),
+        Scanners.IDENTIFIER));
+    Parser<String> parser = ref.lazy();
+    assertEquals("a", parser.parse("a", mode));
+    assertFailure(mode, parser, "a.b.c", 1, 4, "Left recursive parser reference cannot grow past a commit.");
+    // Commits before where it's applied are fine.
+    assertEquals("a", Scanners.isChar('[').commit().next(parser).parse("[a", mode));
+  }
+
+  @Test
+  public void testUninitializedLeftRecursiveReference() {
+    Parser.Reference<String> ref = Parser.newLeftRecursiveReference();
+    assertFailure(mode, ref.lazy(), "", 1, 1, "Uninitialized lazy parser reference");
+  }
 }
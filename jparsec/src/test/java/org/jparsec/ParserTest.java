@@ -17,17 +17,25 @@ package org.jparsec;
 
 import org.jparsec.easymock.BaseMockTest;
 import org.jparsec.error.ParserException;
+import org.jparsec.pattern.Patterns;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.jparsec.Asserts.assertFailure;
 import static org.jparsec.Asserts.assertParser;
@@ -81,6 +89,177 @@ public class ParserTest extends BaseMockTest {
     }
   }
 
+  @Test
+  public void testParse_readableWithLookahead() throws Exception {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < 10000; i++) {
+      builder.append(i).append(i % 10 == 9 ? ",\n" : ",");
+    }
+    Parser<List<Integer>> parser = INTEGER.sepEndBy(Parsers.sequence(COMMA, Scanners.isChar('\n').optional(null)));
+    assertEquals(Integer.valueOf(9999), parser.parse(new StringReader(builder.toString()), 16).get(9999));
+    assertEquals(Arrays.asList(1, 2), parser.parse(new StringReader("1,2"), 1));
+    try {
+      parser.parse(new StringReader(builder.append("1,x").toString()), 16);
+      fail();
+    } catch (ParserException e) {
+      assertEquals(1001, e.getLine());
+      assertEquals(3, e.getColumn());
+    }
+    try {
+      parser.parse(new Reader() {
+        @Override public int read(char[] buf, int off, int len) throws IOException {
+          throw new IOException("broken");
+        }
+        @Override public void close() {}
+      }, 16);
+      fail();
+    } catch (IOException e) {
+      assertEquals("broken", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testParse_readableWithCommit() throws Exception {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < 10000; i++) {
+      builder.append(i).append(",\n");
+    }
+    Parser<List<Integer>> parser = INTEGER.followedBy(COMMA).followedBy(Scanners.isChar('\n')).commit().many();
+    assertEquals(Integer.valueOf(9999), parser.parse(new StringReader(builder.toString()), 16).get(9999));
+    try {
+      parser.parse(new StringReader(builder.append("1,x").toString()), 16);
+      fail();
+    } catch (ParserException e) {
+      assertEquals(10001, e.getLine());
+      assertEquals(3, e.getColumn());
+    }
+  }
+
+  @Test
+  public void testParseStream() throws Exception {
+    Parser<Void> newLine = Scanners.isChar('\n');
+    assertEquals(Arrays.asList(1, 2, 3),
+        INTEGER.parseStream(new StringReader("1\n2\n3"), newLine).collect(Collectors.toList()));
+    assertEquals(Arrays.asList(1, 2),
+        INTEGER.parseStream(new StringReader("1\n2\n"), newLine).collect(Collectors.toList()));
+    assertEquals(Arrays.asList(),
+        INTEGER.parseStream(new StringReader(""), newLine).collect(Collectors.toList()));
+    Iterator<Integer> records = INTEGER.parseStream(new StringReader("1\n2\n3x\n4"), newLine).iterator();
+    assertEquals((Object) 1, records.next());
+    assertEquals((Object) 2, records.next());
+    assertEquals((Object) 3, records.next());
+    try {
+      records.next();
+      fail();
+    } catch (ParserException e) {
+      assertEquals(3, e.getLine());
+      assertEquals(2, e.getColumn());
+    }
+    assertFalse(records.hasNext());
+    try {
+      Parsers.constant(1).parseStream(new StringReader("x"), Parsers.always()).count();
+      fail();
+    } catch (ParserException e) {
+      assertTrue(e.getMessage(), e.getMessage().contains("EOF expected"));
+    }
+  }
+
+  @Test
+  public void testParseStream_readsLazily() {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < 100000; i++) {
+      builder.append(i).append('\n');
+    }
+    AtomicInteger charsRead = new AtomicInteger();
+    StringReader reader = new StringReader(builder.toString()) {
+      @Override public int read(char[] buf, int off, int len) throws IOException {
+        int n = super.read(buf, off, len);
+        if (n > 0) charsRead.addAndGet(n);
+        return n;
+      }
+    };
+    Iterator<Integer> records = INTEGER.parseStream(reader, Scanners.isChar('\n'), 16).iterator();
+    assertEquals((Object) 0, records.next());
+    assertEquals((Object) 1, records.next());
+    assertTrue(charsRead.get() < builder.length());
+  }
+
+  @Test
+  public void testParseParallel() {
+    StringBuilder builder = new StringBuilder();
+    List<Integer> expected = new ArrayList<Integer>();
+    for (int i = 0; i < 10000; i++) {
+      builder.append(i).append('\n');
+      expected.add(i);
+    }
+    Parser<Integer> line = INTEGER.followedBy(Scanners.isChar('\n'));
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      assertEquals(expected, line.parseParallel(builder.toString(), Patterns.isChar('\n'), pool));
+      assertEquals(Arrays.asList(), line.parseParallel("", Patterns.isChar('\n'), pool));
+      assertEquals(Arrays.asList(1), line.parseParallel("1\n", Patterns.isChar('\n'), pool));
+      builder.replace(builder.indexOf("\n8000\n") + 1, builder.indexOf("\n8000\n") + 5, "80x0");
+      builder.replace(builder.indexOf("\n5000\n") + 1, builder.indexOf("\n5000\n") + 5, "5x00");
+      try {
+        line.parseParallel(builder.toString(), Patterns.isChar('\n'), pool);
+        fail();
+      } catch (ParserException e) {
+        assertEquals(5001, e.getLine());
+        assertEquals(2, e.getColumn());
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testParse_optimisticMode() {
+    AtomicInteger counter = new AtomicInteger();
+    Parser<List<Integer>> parser = INTEGER.map(i -> {
+      counter.incrementAndGet();
+      return i;
+    }).sepBy(COMMA);
+    assertEquals(Arrays.asList(1, 2), parser.parse("1,2", Parser.Mode.OPTIMISTIC));
+    assertEquals(2, counter.get());
+    String message = null;
+    try {
+      parser.parse("1,2,x", Parser.Mode.PRODUCTION);
+      fail();
+    } catch (ParserException e) {
+      message = e.getMessage();
+    }
+    counter.set(0);
+    try {
+      parser.parse("1,2,x", Parser.Mode.OPTIMISTIC);
+      fail();
+    } catch (ParserException e) {
+      assertEquals(message, e.getMessage());
+    }
+    // Parsed again to report the error.
+    assertEquals(4, counter.get());
+  }
+
+  @Test
+  public void testParse_optimisticModeWithMemoizedError() {
+    Parser<String> ab = areChars("ab").retn("ab").memoize();
+    Parser<String> parser = Parsers.or(
+        ab.followedBy(COMMA), ab.otherwise(areChars("ac").retn("fallback")), areChars("ac").retn("or"));
+    assertEquals("or", parser.parse("ac", Parser.Mode.PRODUCTION));
+    assertEquals("or", parser.parse("ac", Parser.Mode.OPTIMISTIC));
+  }
+
+  @Test
+  public void testMapToPrimitive() {
+    assertEquals((Integer) 4, INTEGER.mapToInt(i -> i + 1).parse("3", mode));
+    assertEquals((Long) 4L, INTEGER.mapToLong(i -> i + 1L).parse("3", mode));
+    assertEquals((Double) 1.5, INTEGER.mapToDouble(i -> i / 2.0).parse("3", mode));
+    assertEquals("3!", INTEGER.mapToInt(i -> i).mapToObj(i -> i + "!").parse("3", mode));
+    assertFailure(mode, INTEGER.mapToInt(i -> i), "x", 1, 1);
+    IntParser intOrZero = INTEGER.mapToInt(i -> i).or(COMMA.retn(0).mapToInt(i -> i));
+    assertEquals((Integer) 3, intOrZero.parse("3", mode));
+    assertEquals((Integer) 0, intOrZero.parse(",", mode));
+  }
+
   @Test
   public void testSource() {
     assertEquals("source", FOO.source().toString());
@@ -299,6 +478,42 @@ public class ParserTest extends BaseMockTest {
     assertEquals("otherwise", INTEGER.otherwise(INTEGER).toString());
   }
 
+  @Test
+  public void testParse_readableWithCommitInIfelse() throws Exception {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < 20000; i++) {
+      builder.append('a');
+    }
+    Parser<?> parser = isChar('a').many().commit().next(isChar('b'))
+        .ifelse(Parsers.always(), isChar('a').many().next(isChar('c')));
+    try {
+      parser.parse(new StringReader(builder.append('c').toString()), 16);
+      fail();
+    } catch (ParserException e) {
+      assertEquals(1, e.getLine());
+      assertEquals(20001, e.getColumn());
+    }
+  }
+
+  @Test
+  public void testCommit() {
+    Parser<Character> ab = isChar('a').commit().next(isChar('b'));
+    assertEquals((Object) 'b', ab.or(isChar('a')).parse("ab", mode));
+    assertEquals((Object) 'c', areChars("ab").or(areChars("ac")).parse("ac", mode));
+    assertFailure(mode, ab.or(areChars("ac")), "ac", 1, 2);
+    assertFailure(mode, ab.otherwise(isChar('a')), "a", 1, 2);
+    assertFailure(mode, Parsers.longer(ab, areChars("ac")), "ac", 1, 2);
+    assertFailure(mode, Parsers.longer(isChar('a'), ab), "ac", 1, 2);
+    assertListParser(ab.many(), "abab", 'b', 'b');
+    assertFailure(mode, ab.many(), "aba", 1, 4);
+    assertFailure(mode, ab.times(0, 2), "aba", 1, 4);
+    assertFailure(mode, ab.sepBy(COMMA), "ab,a", 1, 5);
+    assertFailure(mode, ab.ifelse(Parsers.always(), areChars("ac")), "ac", 1, 2);
+    assertFailure(mode, ab.atomic().or(areChars("ac")), "ac", 1, 2);
+    // Backtracking to where it commits is still allowed.
+    assertEquals((Object) 'c', constant('x').commit().next(isChar('b')).or(isChar('c')).parse("c", mode));
+  }
+
   @Test
   public void testOptional() {
     assertEquals((Object) 12, INTEGER.optional().parse("12", mode));
@@ -347,6 +562,24 @@ public class ParserTest extends BaseMockTest {
     assertFailure(mode, areChars("ab").atomic(), "a", 1, 2);
   }
 
+  @Test
+  public void testMemoize() {
+    AtomicInteger counter = new AtomicInteger();
+    Parser<Integer> counted = INTEGER.map(i -> {
+      counter.incrementAndGet();
+      return i;
+    }).memoize();
+    Parser<Integer> parser = Parsers.or(
+        counted.followedBy(COMMA), counted.followedBy(isChar(';')), counted);
+    assertEquals((Object) 12, parser.parse("12", mode));
+    assertEquals(mode == Parser.Mode.DEBUG ? 3 : 1, counter.get());
+    assertEquals("integer", INTEGER.memoize().toString());
+    assertEquals((Object) 3, counted.followedBy(COMMA).many().next(counted).parse("1,2,3", mode));
+    assertFailure(mode, parser.followedBy(COMMA), "12;.", 1, 4);
+    assertFailure(mode, Parsers.or(counted.followedBy(COMMA), counted.followedBy(COMMA)), "a", 1, 1,
+        "integer expected, a encountered.");
+  }
+
   @Test
   public void testStep() {
     assertEquals(INTEGER.toString(), INTEGER.asDelimiter().toString());
@@ -753,6 +986,98 @@ public class ParserTest extends BaseMockTest {
         integers.from(Terminals.IntegerLiteral.TOKENIZER, Scanners.WHITESPACES);
     assertEquals("followedBy", parser.toString());
     assertListParser(parser, "12 34   5 ", "12", "34", "5");
+    assertListParser(parser, "  12 3", "12", "3");
+    assertListParser(parser, "");
+    assertListParser(parser, "   ");
+    assertFailure(mode, parser, "12 x", 1, 4);
+    assertFailure(mode, Terminals.IntegerLiteral.PARSER.times(3)
+        .from(Terminals.IntegerLiteral.TOKENIZER, Scanners.WHITESPACES), " 1 2", 1, 5);
+  }
+
+  @Test
+  public void testFrom_withDelimiterThatCommits() {
+    Parser<Void> delim = Scanners.isChar(';').commit().next(Scanners.isChar(';'));
+    Parser<List<String>> integers = Terminals.IntegerLiteral.PARSER.many();
+    assertListParser(integers.from(Terminals.IntegerLiteral.TOKENIZER, delim), "1;;2", "1", "2");
+    // The lexer doesn't backtrack to before the delimiter commits.
+    assertFailure(mode, integers.from(Terminals.IntegerLiteral.TOKENIZER, delim).followedBy(string(";3")),
+        "1;;2;3", 1, 6);
+    assertFailure(mode, integers.fromOnDemand(Terminals.IntegerLiteral.TOKENIZER, delim).followedBy(string(";3")),
+        "1;;2;3", 1, 6);
+  }
+
+  @Test
+  public void testFrom_withDelimiterReusesTokenBuffer() {
+    Parser<Integer> parser = Parsers.or(
+        Terminals.IntegerLiteral.PARSER.times(3).retn(0)
+            .from(Terminals.IntegerLiteral.TOKENIZER, Scanners.WHITESPACES),
+        Terminals.IntegerLiteral.PARSER.many().next(Parsers.INDEX)
+            .from(Terminals.IntegerLiteral.TOKENIZER, Scanners.WHITESPACES));
+    assertEquals(Integer.valueOf(0), parser.parse("1 2 3", mode));
+    assertEquals(Integer.valueOf(4), parser.parse("1 23", mode));
+  }
+
+  @Test
+  public void testFromOnDemand() {
+    Parser<List<String>> integers = Terminals.IntegerLiteral.PARSER.many();
+    Parser<List<String>> parser =
+        integers.fromOnDemand(Terminals.IntegerLiteral.TOKENIZER, Scanners.WHITESPACES);
+    assertListParser(parser, "12 34   5 ", "12", "34", "5");
+    assertListParser(parser, "  12 3", "12", "3");
+    assertListParser(parser, "");
+    assertListParser(parser, "   ");
+    assertFailure(mode, parser, "12 x", 1, 4);
+    Parser<List<String>> three = Terminals.IntegerLiteral.PARSER.times(3);
+    for (String source : Arrays.asList(" 1 2", "1 2 3 4", "1 x", "")) {
+      assertEquals(
+          failureMessage(three.from(Terminals.IntegerLiteral.TOKENIZER, Scanners.WHITESPACES), source),
+          failureMessage(three.fromOnDemand(Terminals.IntegerLiteral.TOKENIZER, Scanners.WHITESPACES), source));
+    }
+  }
+
+  @Test
+  public void testFromOnDemand_lexesLazily() {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < 10000; i++) {
+      builder.append(i).append(' ');
+    }
+    AtomicInteger tokensLexed = new AtomicInteger();
+    Parser<?> tokenizer = Terminals.IntegerLiteral.TOKENIZER.map(t -> {
+      tokensLexed.incrementAndGet();
+      return t;
+    });
+    Parser<List<String>> parser =
+        Terminals.IntegerLiteral.PARSER.times(2).fromOnDemand(tokenizer, Scanners.WHITESPACES);
+    assertFailure(mode, parser, builder.toString(), 1, 5, "EOF expected, 2 encountered.");
+    assertTrue(tokensLexed.get() < 10);
+  }
+
+  @Test
+  public void testFromOnDemand_readableWithCommit() throws Exception {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < 10000; i++) {
+      builder.append(i).append(" \n");
+    }
+    Parser<List<String>> parser = Terminals.IntegerLiteral.PARSER.commit().many()
+        .fromOnDemand(Terminals.IntegerLiteral.TOKENIZER, Scanners.WHITESPACES);
+    assertEquals("9999", parser.parse(new StringReader(builder.toString()), 16).get(9999));
+    try {
+      parser.parse(new StringReader(builder.append("1 x").toString()), 16);
+      fail();
+    } catch (ParserException e) {
+      assertEquals(10001, e.getLine());
+      assertEquals(3, e.getColumn());
+    }
+  }
+
+  private String failureMessage(Parser<?> parser, String source) {
+    try {
+      parser.parse(source, mode);
+      fail();
+      return null;
+    } catch (ParserException e) {
+      return e.getMessage();
+    }
   }
 
   @Test
@@ -39,7 +39,9 @@ public class ScannersTest {
 
   @Parameterized.Parameters
   public static Collection<Object[]> data() {
-          return Arrays.asList(new Object[] {Parser.Mode.PRODUCTION}, new Object[] {Parser.Mode.DEBUG});
+          return Arrays.asList(
+              new Object[] {Parser.Mode.PRODUCTION}, new Object[] {Parser.Mode.DEBUG},
+              new Object[] {Parser.Mode.OPTIMISTIC});
   }
 
   private final Parser.Mode mode;
@@ -65,6 +67,22 @@ public class ScannersTest {
     assertStringScanner(mode, scanner, "12.3", ".3");
   }
 
+  @Test
+  public void testInt() {
+    assertEquals((Integer) 123, Scanners.INT.parse("123", mode));
+    assertEquals((Integer) Integer.MAX_VALUE, Scanners.INT.parse("0002147483647", mode));
+    assertEquals("12", Scanners.INT.mapToObj(Integer::toString).followedBy(Scanners.string(".3")).parse("12.3", mode));
+    assertFailure(mode, Scanners.INT, "x", 1, 1, "integer expected, x encountered.");
+    assertFailure(mode, Scanners.INT, "2147483648", 1, 1, NumberFormatException.class);
+  }
+
+  @Test
+  public void testLong() {
+    assertEquals((Long) Long.MAX_VALUE, Scanners.LONG.parse("9223372036854775807", mode));
+    assertFailure(mode, Scanners.LONG, "", 1, 1, "integer expected, EOF encountered.");
+    assertFailure(mode, Scanners.LONG, "9223372036854775808", 1, 1, NumberFormatException.class);
+  }
+
   @Test
   public void testDecimal() {
     Parser<String> scanner = Scanners.DECIMAL;
@@ -290,6 +308,7 @@ public class ScannersTest {
     assertScanner(mode, scanner, "#hello world\n", "\n");
     assertScanner(mode, scanner, "#hello world\r\n", "\n");
     assertScanner(mode, scanner, "#\n", "\n");
+    assertScanner(mode, scanner, "#a\n#b\n", "\n#b\n");
     assertNull(scanner.parse("#"));
     assertFailure(mode, scanner, "", 1, 1);
     assertFailure(mode, scanner, "\n", 1, 1);
@@ -324,6 +343,9 @@ public class ScannersTest {
     assertFailure(mode, scanner, "ab", 1, 1);
     assertFailure(mode, scanner, "\"ab", 1, 4);
     assertFailure(mode, scanner, "\"\\\"", 1, 4);
+    assertStringScanner(mode, scanner, "\"\\\"\"");
+    assertStringScanner(mode, scanner, "\"a\\\\\"");
+    assertFailure(mode, scanner, "\"a\\", 1, 4);
   }
 
   @Test
@@ -333,6 +355,8 @@ public class ScannersTest {
     assertStringScanner(mode, scanner, "'a'");
     assertStringScanner(mode, scanner, "'foo'");
     assertStringScanner(mode, scanner, "'foo''s day'");
+    assertStringScanner(mode, scanner, "''''");
+    assertFailure(mode, scanner, "'a''", 1, 5);
   }
 
   @Test
@@ -614,6 +638,20 @@ public class ScannersTest {
     assertScanner(mode, Scanners.isChar(' ').next(scanner), " aa1", "1");
   }
 
+  @Test
+  public void testNestedScanner_innerStopsAtEnd() {
+    Parser<?>[] inners = {
+        Scanners.INTEGER, Scanners.INT, Scanners.many(CharPredicates.IS_DIGIT),
+        Scanners.string("1").next(Scanners.string("2").or(Scanners.string("23"))),
+        Scanners.INTEGER.skipMany(),
+    };
+    for (Parser<?> inner : inners) {
+      Parser<Void> scanner = Scanners.nestedScanner(
+          Scanners.isChar(CharPredicates.IS_DIGIT).times(2), inner.followedBy(Parsers.EOF).retn(null));
+      assertScanner(mode, scanner, "123", "3");
+    }
+  }
+
   @Test
   public void veryLongDoublyQuotedStringWithEscapedDoubleQuotes() {
     String quoted = "\"" + replicate(1000, "\n\\\"dsvtrbdfvbgf\\\"") + "\"";
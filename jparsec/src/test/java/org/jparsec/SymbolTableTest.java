@@ -0,0 +1,56 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link SymbolTable}.
+ * 
+ * @author Ben Yu
+ */
+public class SymbolTableTest {
+
+  @Test
+  public void testHash() {
+    assertEquals("bar".hashCode(), SymbolTable.hash("foo bar", 4, 7));
+    assertEquals(0, SymbolTable.hash("foo", 1, 1));
+  }
+
+  @Test
+  public void testGetAndPut() {
+    SymbolTable table = new SymbolTable(2);
+    Object owner = new Object();
+    String source = "foo bar foo";
+    assertNull(table.get(owner, source, 0, 3, SymbolTable.hash(source, 0, 3)));
+    for (int i = 0; i < 100; i++) {
+      String word = "w" + i;
+      table.put(owner, word, i, word.hashCode());
+    }
+    table.put(owner, "foo", "FOO", "foo".hashCode());
+    assertEquals(101, table.size());
+    assertEquals("FOO", table.get(owner, source, 8, 11, SymbolTable.hash(source, 8, 11)));
+    assertEquals(42, table.get(owner, "w42", 0, 3, "w42".hashCode()));
+    assertNull(table.get(owner, source, 4, 7, SymbolTable.hash(source, 4, 7)));
+    assertNull(table.get(new Object(), source, 0, 3, SymbolTable.hash(source, 0, 3)));
+    table.clear();
+    assertEquals(0, table.size());
+    assertNull(table.get(owner, source, 0, 3, SymbolTable.hash(source, 0, 3)));
+  }
+}
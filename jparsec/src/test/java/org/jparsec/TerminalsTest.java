@@ -22,6 +22,7 @@ import org.junit.runners.Parameterized;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 
 import static java.util.Arrays.asList;
 import static org.jparsec.Asserts.assertFailure;
@@ -39,7 +40,9 @@ public class TerminalsTest {
 
   @Parameterized.Parameters
   public static Collection<Object[]> data() {
-    return Arrays.asList(new Object[] {Parser.Mode.PRODUCTION}, new Object[] {Parser.Mode.DEBUG});
+    return Arrays.asList(
+        new Object[] {Parser.Mode.PRODUCTION}, new Object[] {Parser.Mode.DEBUG},
+        new Object[] {Parser.Mode.OPTIMISTIC});
   }
 
   private final Parser.Mode mode;
@@ -304,6 +307,33 @@ public class TerminalsTest {
   assertEquals("123", Terminals.Identifier.PARSER.from(terminals.tokenizer(), WHITESPACES).parse("123"));
   }
 
+  @Test
+  public void testInternWords() {
+    Terminals terminals = Terminals
+        .operators(",")
+        .words(Scanners.IDENTIFIER)
+        .caseInsensitiveKeywords("select", "from")
+        .internWords()
+        .build();
+    Parser<List<String>> parser =
+        Parsers.or(terminals.token("select", "from", ",").<String>retn(null), Terminals.Identifier.PARSER)
+            .many().from(terminals.tokenizer(), WHITESPACES);
+    List<String> words = parser.parse("select a , b , a from t , a", mode);
+    assertEquals(asList(null, "a", null, "b", null, "a", null, "t", null, "a"), words);
+    assertSame(words.get(1), words.get(5));
+    assertSame(words.get(1), words.get(9));
+    List<Token> tokens = terminals.tokenizer().lexer(WHITESPACES).parse("a b a SELECT");
+    assertSame(tokens.get(0).value(), tokens.get(2).value());
+    assertEquals(Tokens.identifier("b"), tokens.get(1).value());
+    assertEquals(Tokens.reserved("select"), tokens.get(3).value());
+    ParseSession<List<String>> session = parser.newSession();
+    String first = session.parse("a , a").get(0);
+    String second = session.parse("a").get(0);
+    assertEquals(first, second);
+    // Words are interned per parse.
+    assertNotSame(first, second);
+  }
+
   @Test
   public void testCheckDup() {
     Terminals.checkDup(asList("a", "b"), asList("+", "-"));
@@ -0,0 +1,65 @@
+/*****************************************************************************
+ * Copyright (C) jparsec.org                                                *
+ * ------------------------------------------------------------------------- *
+ * Licensed under the Apache License, Version 2.0 (the "License");           *
+ * you may not use this file except in compliance with the License.          *
+ * You may obtain a copy of the License at                                   *
+ *                                                                           *
+ * http://www.apache.org/licenses/LICENSE-2.0                                *
+ *                                                                           *
+ * Unless required by applicable law or agreed to in writing, software       *
+ * distributed under the License is distributed on an "AS IS" BASIS,         *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  *
+ * See the License for the specific language governing permissions and       *
+ * limitations under the License.                                            *
+ *****************************************************************************/
+package org.jparsec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link TokenBuffer}.
+ * 
+ * @author Ben Yu
+ */
+public class TokenBufferTest {
+
+  @Test
+  public void testAdd() {
+    TokenBuffer buffer = new TokenBuffer(1);
+    for (int i = 0; i < 100; i++) {
+      buffer.add(i * 2, 1, i);
+    }
+    assertEquals(100, buffer.size());
+    assertEquals(198, buffer.index(99));
+    assertEquals(1, buffer.length(99));
+    assertEquals(99, buffer.value(99));
+    assertEquals(new Token(10, 1, 5), buffer.token(5));
+  }
+
+  @Test
+  public void testOf() {
+    TokenBuffer buffer = TokenBuffer.of(Arrays.asList(new Token(0, 2, "ab"), new Token(3, 1, 'c')));
+    assertEquals(2, buffer.size());
+    assertEquals(new Token(0, 2, "ab"), buffer.token(0));
+    assertEquals(new Token(3, 1, 'c'), buffer.token(1));
+    buffer.add(4, 1, 'd');
+    assertEquals(new Token(4, 1, 'd'), buffer.token(2));
+  }
+
+  @Test
+  public void testClear() {
+    TokenBuffer buffer = new TokenBuffer();
+    buffer.add(0, 1, "a");
+    buffer.clear();
+    assertEquals(0, buffer.size());
+    assertNull(buffer.value(0));
+    buffer.add(5, 2, "b");
+    assertEquals(new Token(5, 2, "b"), buffer.token(0));
+  }
+}
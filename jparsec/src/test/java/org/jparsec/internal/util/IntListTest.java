@@ -56,6 +56,20 @@ public class IntListTest {
     assertEqualArray(intList.toArray(), 1, 2);
   }
 
+  @Test
+  public void testTruncate() {
+    IntList intList = new IntList();
+    intList.add(1).add(2).add(3);
+    intList.truncate(1);
+    assertEqualArray(intList.toArray(), 1);
+    intList.add(4);
+    assertEqualArray(intList.toArray(), 1, 4);
+    try {
+      intList.truncate(3);
+      fail();
+    } catch (ArrayIndexOutOfBoundsException e) {}
+  }
+
   @Test
   public void testGet() {
     IntList intList = new IntList();
@@ -102,6 +116,20 @@ public class IntListTest {
     assertEqualArray(intList.toArray(), 1);
   }
 
+  @Test
+  public void testRemoveFirst() {
+    IntList intList = new IntList();
+    intList.add(1).add(2).add(3);
+    intList.removeFirst(2);
+    assertEqualArray(intList.toArray(), 3);
+    intList.removeFirst(1);
+    assertEquals(0, intList.size());
+    try {
+      intList.removeFirst(1);
+      fail();
+    } catch (ArrayIndexOutOfBoundsException e) {}
+  }
+
   @Test
   public void testSet_throwsForNegativeIndex() {
     IntList intList = new IntList();
@@ -39,4 +39,14 @@ public class StringsTest {
     assertEquals("1", Strings.join(new StringBuilder(), ", ", new Object[]{1}).toString());
     assertEquals("1, 2", Strings.join(new StringBuilder(), ", ", new Object[]{1, 2}).toString());
   }
+
+  @Test
+  public void testIndexOf() {
+    assertEquals(1, Strings.indexOf("abab", 'b', 0, 4));
+    assertEquals(3, Strings.indexOf("abab", 'b', 2, 4));
+    assertEquals(4, Strings.indexOf("abab", 'c', 0, 4));
+    assertEquals(2, Strings.indexOf("abab", 'b', 2, 2));
+    assertEquals(3, Strings.indexOf(new StringBuilder("abab"), 'b', 2, 4));
+    assertEquals(3, Strings.indexOf(new StringBuilder("abab"), 'b', 2, 3));
+  }
 }
@@ -251,4 +251,61 @@ public class CharPredicatesTest {
     assertEquals("any character or none", CharPredicates.or(CharPredicates.ALWAYS, CharPredicates.NEVER).toString());
     assertEquals("any character or none or any character", CharPredicates.or(CharPredicates.ALWAYS, CharPredicates.NEVER, CharPredicates.ALWAYS).toString());
   }
+
+  @Test
+  public void testTable() {
+    CharPredicate predicate = new CharPredicate() {
+      @Override public boolean isChar(char c) {
+        return c % 3 == 0;
+      }
+      @Override public String toString() {
+        return "multiple of 3";
+      }
+    };
+    CharPredicate table = CharPredicates.table(predicate);
+    for (char c = 0; c < 1000; c++) {
+      assertEquals(predicate.isChar(c), table.isChar(c));
+    }
+    assertTrue(table.isChar('\uFFFF'));
+    assertEquals("multiple of 3", table.toString());
+    assertSame(table, CharPredicates.table(table));
+    assertSame(CharPredicates.IS_ALPHA_NUMERIC_, CharPredicates.table(CharPredicates.IS_ALPHA_NUMERIC_));
+  }
+
+  @Test
+  public void testAmong_nonLatin1() {
+    CharPredicate predicate = CharPredicates.among("a\u4e2d");
+    assertTrue(predicate.isChar('a'));
+    assertTrue(predicate.isChar('\u4e2d'));
+    assertFalse(predicate.isChar('\u00e1'));
+    assertFalse(predicate.isChar('\u4e2e'));
+    assertTrue(CharPredicates.or(CharPredicates.IS_ALPHA, CharPredicates.isChar('\u4e2d')).isChar('\u4e2d'));
+    assertFalse(CharPredicates.IS_ALPHA_NUMERIC_.isChar('\u00e1'));
+    assertTrue(CharPredicates.IS_LETTER.isChar('\u00e1'));
+    assertTrue(CharPredicates.IS_LETTER.isChar('\u4e2d'));
+  }
+
+  @Test
+  public void testStatefulPredicate() {
+    final boolean[] accepting = {false};
+    CharPredicate predicate = new CharPredicate() {
+      @Override public boolean isChar(char c) {
+        return accepting[0];
+      }
+    };
+    CharPredicate or = CharPredicates.or(predicate, CharPredicates.isChar('x'));
+    CharPredicate not = CharPredicates.not(predicate);
+    Pattern many = Patterns.many(predicate);
+    assertFalse(or.isChar('a'));
+    assertTrue(not.isChar('a'));
+    assertEquals(0, many.match("aa", 0, 2));
+    accepting[0] = true;
+    assertTrue(or.isChar('a'));
+    assertFalse(not.isChar('a'));
+    assertEquals(2, many.match("aa", 0, 2));
+    assertFalse(CharPredicates.isStateless(predicate));
+    assertFalse(CharPredicates.isStateless(or));
+    assertTrue(CharPredicates.isStateless(CharPredicates.or(CharPredicates.IS_DIGIT, CharPredicates.isChar('x'))));
+    assertTrue(CharPredicates.isStateless(CharPredicates.table(predicate)));
+  }
 }
@@ -184,4 +184,66 @@ public class PatternTest {
     }
   }
 
+  @Test
+  public void testCompile() {
+    Pattern[] patterns = {
+        Patterns.INTEGER, Patterns.DECIMAL, Patterns.WORD, Patterns.OCT_INTEGER, Patterns.DEC_INTEGER,
+        Patterns.HEX_INTEGER, Patterns.SCIENTIFIC_NOTATION, Patterns.REGEXP_PATTERN, Patterns.REGEXP_MODIFIERS,
+        Patterns.string("ab").or(Patterns.string("a")).next(Patterns.isChar('b')),
+        Patterns.string("ab").many().next(Patterns.string("a")),
+        Patterns.isChar('a').optional().many().next(Patterns.isChar('b')),
+        Patterns.isChar('a').times(1, 3).next(Patterns.string("ab").times(2)),
+        Patterns.string("ab").atLeast(2).or(Patterns.string("aa").atMost(2)),
+        Patterns.times(1, 2, CharPredicates.among("ab")).next(Patterns.atMost(2, CharPredicates.IS_ALPHA)),
+        Patterns.repeat(2, CharPredicates.isChar('a')).next(Patterns.string("ba").not()),
+        Patterns.string("ab").peek().next(Patterns.atLeast(2, CharPredicates.ALWAYS)),
+        Patterns.isChar('a').ifelse(Patterns.isChar('b'), Patterns.string("ba")),
+        Patterns.or(Patterns.NEVER, Patterns.ALWAYS).next(Patterns.regex("a+")),
+        Patterns.isChar('a').many().times(0, 100),
+        nested(Patterns.isChar('b'), 6),
+    };
+    String[] inputs = {
+        "", "a", "b", "ab", "aab", "abab", "ababa", "aaab", "ba", "bab", "0", "0x1F", "0X", "12", "1.5e-3", ".5E2",
+        "1e", "/a\\/b/gi", "/ab", "a\u00e9", "\u00e9", "_x1 y", "aaaaab",
+        "(((((b)))))", "((b)(b))((", "(((((((b)))))))", "((((((b)b)b)b)b)b)",
+    };
+    for (Pattern pattern : patterns) {
+      Pattern compiled = pattern.compile();
+      assertEquals(pattern.toString(), compiled.toString());
+      assertSame(compiled, compiled.compile());
+      for (String input : inputs) {
+        for (int begin = 0; begin <= input.length(); begin++) {
+          assertEquals(pattern + " on " + input.substring(begin),
+              pattern.match(input, begin, input.length()), compiled.match(input, begin, input.length()));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testCompile_nested() {
+    Pattern compiled = Patterns.isChar('a').many().compile();
+    Pattern pattern = compiled.next(Patterns.isChar('b')).compile();
+    assertEquals(3, pattern.match("aab", 0, 3));
+    assertEquals(MISMATCH, pattern.match("aac", 0, 3));
+    assertEquals(2, Patterns.isChar('a').atLeast(100).or(compiled).compile().match("aab", 0, 3));
+  }
+
+  @Test
+  public void testCompile_statefulPredicate() {
+    final boolean[] accepting = {false};
+    Pattern pattern = Patterns.many(c -> accepting[0] && c == 'a').next(Patterns.isChar('b')).compile();
+    assertEquals(1, pattern.match("ab", 1, 2));
+    assertEquals(MISMATCH, pattern.match("ab", 0, 2));
+    accepting[0] = true;
+    assertEquals(2, pattern.match("ab", 0, 2));
+  }
+
+  /** Nests {@code pattern} in up to {@code depth} levels of parentheses. */
+  private static Pattern nested(Pattern pattern, int depth) {
+    for (int i = 0; i < depth; i++) {
+      pattern = Patterns.isChar('(').next(pattern.many()).next(Patterns.isChar(')')).or(pattern);
+    }
+    return pattern;
+  }
 }
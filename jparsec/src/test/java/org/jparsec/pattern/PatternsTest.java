@@ -174,6 +174,31 @@ public class PatternsTest {
     assertEquals(MISMATCH, Patterns.notString("abc").match("abc", 0, 0));
   }
 
+  @Test
+  public void testUntil() {
+    assertEquals(2, Patterns.until("*/").match("ab*/c", 0, 5));
+    assertEquals(0, Patterns.until("*/").match("*/", 0, 2));
+    assertEquals(3, Patterns.until("*/").match("ab*", 0, 3));
+    assertEquals(0, Patterns.until("").match("abc", 0, 3));
+    assertEquals(0, Patterns.until("abc").match("xabcabc", 1, 7));
+    // '\u0161' shares the lowest 8 bits, and thus a skip table entry, with 'a'.
+    String[] strings = {"a", "ab", "aab", "aba", "\u0161a", "a\u0161a"};
+    String[] inputs = {"", "a", "b", "aab", "xxaba", "aaab", "\u0161\u0161a", "xa\u0161\u0161a\u0161a", "bbbbbbbaab"};
+    for (String string : strings) {
+      Pattern expected = Patterns.notString(string).many();
+      Pattern actual = Patterns.until(string);
+      for (String input : inputs) {
+        for (int begin = 0; begin <= input.length(); begin++) {
+          for (int end = begin; end <= input.length(); end++) {
+            assertEquals(input, expected.match(input, begin, end), actual.match(input, begin, end));
+            assertEquals(input, expected.match(input, begin, end),
+                actual.match(new StringBuilder(input), begin, end));
+          }
+        }
+      }
+    }
+  }
+
   @Test
   public void testNotStringCaseInsensitive() {
     assertEquals(MISMATCH, Patterns.notStringCaseInsensitive("").match("a", 0, 0));
@@ -455,6 +480,17 @@ public class PatternsTest {
     assertEquals(MISMATCH, Patterns.regex("a*").match("aaab", 3, 2));
   }
 
+  @Test
+  public void testRegex_matchesWithinRange() {
+    Pattern pattern = Patterns.regex("^b+$");
+    assertEquals(2, pattern.match("abbc", 1, 3));
+    assertEquals(2, pattern.match(new StringBuilder("abbc"), 1, 3));
+    assertEquals(MISMATCH, pattern.match("abbc", 1, 4));
+    assertEquals(MISMATCH, Patterns.regex("(?<=a)b").match("ab", 1, 2));
+    assertEquals(MISMATCH, Patterns.regex("b").match("ab", 0, 2));
+    assertEquals("^b+$", pattern.toString());
+  }
+
   @Test
   public void testRegexpPattern() {
     assertEquals(3, Patterns.REGEXP_PATTERN.match("/a/", 0, 3));